@@ -0,0 +1,97 @@
+package hjsi.bench;
+
+import hjsi.game.GameLog;
+import hjsi.timer.TimeManager;
+import hjsi.timer.TimerRunnable;
+
+import java.util.Random;
+
+/**
+ * 타이머 수에 따른 틱당 타이머 처리 비용을 잰다. 주기가 1초 ~ 600초 사이에서 무작위인 무한 반복 콜백 타이머를 등록하고, 틱 방식으로
+ * advanceTime(10)과 nextTask()로 꺼낸 작업 수행을 TICKS번 반복한다. 카운트다운 중인 타이머를 타이밍 휠에 나눠 담으므로 틱당 비용은 타이머
+ * 수와 거의 상관없이 일정해야 한다. 같은 시드를 쓰므로 수행된 콜백 수로 결과가 같은지 비교할 수 있다.
+ *
+ * 안드로이드 없이 일반 JVM에서 실행한다. 인자로 타이머 수를 주면 그 수만 잰다.
+ *
+ * <pre>
+ * javac -d out src/hjsi/game/*.java src/hjsi/timer/*.java bench/hjsi/bench/*.java
+ * java -cp out hjsi.bench.TimerBench [타이머 수 ...]
+ * </pre>
+ */
+public class TimerBench {
+  /**
+   * 한 번 잴 때 진행하는 틱 수. 10ms 틱으로 10분이다.
+   */
+  private static final int TICKS = 60000;
+  private static final int TICK_MS = 10;
+
+  private static final long MIN_PERIOD = 1000L;
+  private static final long MAX_PERIOD = 600000L;
+
+  private static final int[] DEFAULT_COUNTS = {1000, 10000, 100000};
+
+  /**
+   * 수행된 콜백 수
+   */
+  private static long fired = 0L;
+
+  public static void main(String[] args) {
+    // 타이머를 등록할 때마다 남기는 로그는 버린다.
+    GameLog.setPrinter(new GameLog.Printer() {
+      @Override
+      public void print(int level, String tag, String message) {}
+    });
+    TimeManager.setTickDriven(true);
+
+    int[] counts = DEFAULT_COUNTS;
+    if (args.length > 0) {
+      counts = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        counts[i] = Integer.parseInt(args[i]);
+      }
+    }
+
+    run(counts[0], TICKS / 10); // JIT 예열
+    System.out.println("timers    ns/tick    callbacks");
+    for (int count : counts) {
+      long nanos = run(count, TICKS);
+      System.out.println(String.format("%6d %10d %12d", count, nanos / TICKS, fired));
+    }
+  }
+
+  /**
+   * 타이머를 count개 등록하고 ticks만큼 진행시킨다. 끝나면 등록한 타이머를 모두 없앤다.
+   *
+   * @return 틱을 진행하는 데 걸린 시간. 단위 ns
+   */
+  private static long run(int count, int ticks) {
+    TimerRunnable action = new TimerRunnable() {
+      @Override
+      public void run() {
+        fired++;
+      }
+    };
+    Random random = new Random(count);
+    for (int i = 0; i < count; i++) {
+      long period = MIN_PERIOD + (long) (random.nextDouble() * (MAX_PERIOD - MIN_PERIOD));
+      TimeManager.registerCallbackTimer(period, action, -1).start();
+    }
+    TimeManager.startTime();
+
+    fired = 0L;
+    long start = System.nanoTime();
+    for (int t = 0; t < ticks; t++) {
+      TimeManager.advanceTime(TICK_MS);
+      TimerRunnable task = TimeManager.nextTask();
+      while (task != null) {
+        task.run();
+        task = TimeManager.nextTask();
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+
+    TimeManager.stopTime();
+    TimeManager.purgeTimers();
+    return elapsed;
+  }
+}
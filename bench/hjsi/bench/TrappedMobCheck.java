@@ -0,0 +1,112 @@
+package hjsi.bench;
+
+import hjsi.game.GameMaster;
+import hjsi.game.GameState;
+import hjsi.game.MobStore;
+import hjsi.game.Tower;
+import hjsi.timer.TimeManager;
+
+/**
+ * 미로 맵에서 살아있는 몹을 가두는 타워 배치가 거절되는지 확인한다. 몹 하나만 나오는 웨이브를 진행하다가 몹이 출발 칸과 목적지에서 떨어진 칸에
+ * 들어오면 그 칸의 이웃 칸에 타워를 모두 놓아본다. 마지막 칸은 출발 칸에서 목적지로 가는 길은 그대로 두고 몹만 가두므로 거절돼야 하고, 그 뒤에
+ * 몹이 목적지에 도착해서 웨이브가 끝나야 한다. 실패하면 0이 아닌 종료 코드로 끝난다.
+ *
+ * 안드로이드 없이 일반 JVM에서 실행한다.
+ *
+ * <pre>
+ * javac -d out src/hjsi/game/*.java src/hjsi/timer/*.java bench/hjsi/bench/*.java
+ * java -cp out hjsi.bench.TrappedMobCheck
+ * </pre>
+ */
+public class TrappedMobCheck {
+  /**
+   * 웨이브가 끝나기를 기다리는 최대 틱 수
+   */
+  private static final int MAX_TICKS = 100000;
+
+  public static void main(String[] args) {
+    GameState gameState = GameState.getInstance();
+    gameState.removeTower(1, 1); // 시험용 타워가 몹을 죽이지 않게 치운다.
+    gameState.mazeMode = true;
+    gameState.initState();
+    // 몹이 하나만 나오고, 그 몹이 도착하면 웨이브가 끝나게 한다.
+    gameState.usedMob = GameState.MAX_MOB - 1;
+    gameState.deadMob = GameState.MAX_MOB - 1;
+
+    TimeManager.startTime();
+    GameMaster gameMaster = new GameMaster(false);
+    MobStore mobs = gameState.getMobs();
+
+    /* 몹이 가둘 수 있는 칸의 중앙에 올 때까지 진행한다. */
+    int col = -1;
+    int row = -1;
+    int ticks = 0;
+    while (col < 0) {
+      if (ticks++ > MAX_TICKS || gameMaster.runTicks(1) == 0) {
+        fail("몹이 가둘 수 있는 칸에 오지 않았다.");
+      }
+      if (mobs.getCount() == 1) {
+        int x = mobs.getCntrX(0);
+        int y = mobs.getCntrY(0);
+        int c = x / GameState.CELL_WIDTH;
+        int r = y / GameState.CELL_HEIGHT;
+        if (x % GameState.CELL_WIDTH == GameState.CELL_WIDTH / 2 && y % GameState.CELL_HEIGHT == GameState.CELL_HEIGHT / 2
+            && canEnclose(c, r)) {
+          col = c;
+          row = r;
+        }
+      }
+    }
+    System.out.println("mob at (" + col + ", " + row + ") after " + ticks + " ticks");
+
+    /* 몹이 있는 칸의 이웃 칸을 모두 막는다. 마지막 칸만 거절돼야 한다. */
+    int[][] around = {{col - 1, row}, {col + 1, row}, {col, row - 1}, {col, row + 1}};
+    int last = -1;
+    for (int k = 0; k < around.length; k++) {
+      if (inTable(around[k][0], around[k][1])) {
+        last = k;
+      }
+    }
+    for (int k = 0; k <= last; k++) {
+      int c = around[k][0];
+      int r = around[k][1];
+      if (!inTable(c, r)) {
+        continue;
+      }
+      boolean placed = gameState.placeTower(new Tower(), c, r);
+      System.out.println("place (" + c + ", " + r + "): " + placed);
+      if (placed != (k != last)) {
+        fail((k == last) ? "몹을 가두는 배치가 받아들여졌다." : "몹을 가두지 않는 배치가 거절됐다.");
+      }
+    }
+
+    /* 몹이 갇히지 않았다면 목적지에 도착해서 웨이브가 끝난다. */
+    int rest = 0;
+    while (gameState.wave == 1) {
+      if (rest > MAX_TICKS) {
+        fail("웨이브가 끝나지 않았다.");
+      }
+      rest += gameMaster.runTicks(1000);
+    }
+    System.out.println("wave ended after " + (ticks + rest) + " ticks");
+    System.out.println("OK");
+    System.exit(0);
+  }
+
+  /**
+   * @return 칸의 이웃 칸을 모두 막아도 출발 칸과 목적지가 막히지 않고 서로 이어져 있으면 true
+   */
+  private static boolean canEnclose(int col, int row) {
+    // 출발 칸(왼쪽 위)과 목적지(오른쪽 아래)에서 두 칸 이상 떨어져 있으면 된다.
+    return col + row >= 2 && (GameState.TABLE_COLS - 1 - col) + (GameState.TABLE_ROWS - 1 - row) >= 2;
+  }
+
+  private static boolean inTable(int col, int row) {
+    return 0 <= col && col < GameState.TABLE_COLS && 0 <= row && row < GameState.TABLE_ROWS;
+  }
+
+  private static void fail(String message) {
+    System.out.println("FAIL: " + message);
+    System.exit(1);
+  }
+}
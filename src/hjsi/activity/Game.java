@@ -5,8 +5,10 @@ import hjsi.common.Camera;
 import hjsi.common.GameSurface;
 import hjsi.game.GameMaster;
 import hjsi.game.GameState;
-import hjsi.game.Unit;
+import hjsi.game.HandleTable;
+import hjsi.game.Tower;
 import hjsi.timer.TimeManager;
+import hjsi.timer.TimerRunnable;
 import android.content.DialogInterface;
 import android.content.DialogInterface.OnDismissListener;
 import android.content.Intent;
@@ -23,7 +25,7 @@ import android.widget.ToggleButton;
 public class Game extends Base implements OnClickListener {
   private boolean explicitQuit = false; // Map에서 사용한 리소스 해제 타이밍을 위한 변수
 
-  Button btnSetting, btnBook, btnStore, btnDeploy;
+  Button btnSetting, btnBook, btnStore, btnDeploy, btnSpeed;
   ToggleButton btnPlay;
   Drawable drawableBtnPlay_Pause;
   Drawable drawableBtnPlay_Play;
@@ -46,10 +48,13 @@ public class Game extends Base implements OnClickListener {
      * 화면 비율을 구해서 카메라를 생성할 때 넘겨준다.
      */
     camera = new Camera(AppManager.getInstance().getDisplayFactor());
+    /* GameMaster 생성 */
+    gameMaster = new GameMaster();
+
     /*
      * surfaceview 생성 및 등록
      */
-    GameSurface gameView = new GameSurface(getApplicationContext(), camera);
+    GameSurface gameView = new GameSurface(getApplicationContext(), camera, gameMaster);
     setContentView(gameView);
 
     /*
@@ -74,6 +79,8 @@ public class Game extends Base implements OnClickListener {
     btnStore.setOnClickListener(this);
     btnDeploy = (Button) findViewById(R.id.btn_deploy);
     btnDeploy.setOnClickListener(this);
+    btnSpeed = (Button) findViewById(R.id.btn_speed);
+    btnSpeed.setOnClickListener(this);
 
     dlgSetting = new DlgSetting(Game.this);
     dlgSetting.setCanceledOnTouchOutside(false);
@@ -90,9 +97,6 @@ public class Game extends Base implements OnClickListener {
     Game.music.setLooping(true);
     Game.music.start();
 
-    /* GameMaster 생성 */
-    gameMaster = new GameMaster();
-
     AppManager.printDetailLog(getClass().getSimpleName() + " 초기화 완료");
   }
 
@@ -176,6 +180,8 @@ public class Game extends Base implements OnClickListener {
         gameMaster.pauseGame();
         TimeManager.pauseTime();
       }
+    } else if (v == btnSpeed) {
+      changeSpeed();
     } else if (v == btnStore) {
       Intent Store = new Intent(Game.this, Store.class);
       startActivity(Store);
@@ -203,9 +209,37 @@ public class Game extends Base implements OnClickListener {
     int x = (int) ((event.getX() + camera.getX()) / camera.getScale());
     int y = (int) ((event.getY() + camera.getY()) / camera.getScale());
 
-    Unit unit = GameState.getInstance().getUnit(x, y);
-    if (unit != null) {
-      AppManager.printInfoLog(unit.toString());
+    final GameState gameState = GameState.getInstance();
+
+    /*
+     * 배치모드에서 손을 떼면 그 자리의 격자 칸에 들고 있던 타워를 배치한다. 타워 격자는 게임 진행 스레드만 다루므로 배치는 작업으로 넘기고,
+     * 들고 있던 타워는 배치에 성공했을 때만 내려놓는다.
+     */
+    if (gameState.checkDeployMode()) {
+      if (event.getAction() == MotionEvent.ACTION_UP) {
+        final int col = x / GameState.CELL_WIDTH;
+        final int row = y / GameState.CELL_HEIGHT;
+        if (0 <= col && col < GameState.TABLE_COLS && 0 <= row && row < GameState.TABLE_ROWS) {
+          final Tower tower = gameState.inHand;
+          gameMaster.runTask(new TimerRunnable() {
+            @Override
+            public void run() {
+              if (gameState.inHand != tower) // 그 사이에 배치했거나 배치를 취소했다.
+                return;
+              if (gameState.placeTower(tower, col, row))
+                gameState.inHand = null;
+              else
+                AppManager.printInfoLog("타워 배치 실패: " + col + ", " + row);
+            }
+          });
+        }
+      }
+      return true;
+    }
+
+    int entity = gameState.getEntityAt(x, y);
+    if (entity != HandleTable.NONE) {
+      AppManager.printInfoLog(gameState.getWorld().describe(entity));
     }
 
 
@@ -217,6 +251,30 @@ public class Game extends Base implements OnClickListener {
     explicitQuit = true;
   }
 
+  /**
+   * 게임 진행 배속을 x1 -> x2 -> x4 -> MAX -> x1 순서로 바꾼다.
+   */
+  private void changeSpeed() {
+    switch (gameMaster.getSpeed()) {
+      case GameMaster.SPEED_NORMAL:
+        gameMaster.setSpeed(GameMaster.SPEED_DOUBLE);
+        btnSpeed.setText(R.string.btn_speed_double);
+        break;
+      case GameMaster.SPEED_DOUBLE:
+        gameMaster.setSpeed(GameMaster.SPEED_QUAD);
+        btnSpeed.setText(R.string.btn_speed_quad);
+        break;
+      case GameMaster.SPEED_QUAD:
+        gameMaster.setSpeed(GameMaster.SPEED_MAX);
+        btnSpeed.setText(R.string.btn_speed_max);
+        break;
+      default:
+        gameMaster.setSpeed(GameMaster.SPEED_NORMAL);
+        btnSpeed.setText(R.string.btn_speed_normal);
+        break;
+    }
+  }
+
   private void showSettingMenu() {
     AppManager.printSimpleLog();
     dlgSetting.show();
@@ -1,6 +1,8 @@
 package hjsi.common;
 
 import hjsi.activity.Base;
+import hjsi.activity.BuildConfig;
+import hjsi.game.GameLog;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -45,10 +47,6 @@ public class AppManager {
    * 해상도 조정을 위한 비율 변수
    */
   private float displayRatioFactor;
-  /**
-   * TODO 제거 대상
-   */
-  private volatile int logicFps;
 
   /*
    * 
@@ -58,6 +56,30 @@ public class AppManager {
   private AppManager() {
     runningActivities = new LinkedList<Base>();
     loadedBitmap = new HashMap<String, Bitmap>();
+
+    /*
+     * 게임 로직에서 출력하는 로그도 LogCat으로 출력되게 한다.
+     */
+    GameLog.setDebug(BuildConfig.DEBUG);
+    GameLog.setPrinter(new GameLog.Printer() {
+      @Override
+      public void print(int level, String tag, String message) {
+        switch (level) {
+          case GameLog.VERBOSE:
+            Log.v(getTagPrefix(tag), message);
+            break;
+          case GameLog.INFO:
+            Log.i(getTagPrefix(tag), message);
+            break;
+          case GameLog.ERROR:
+            Log.e(getTagPrefix(tag), message);
+            break;
+          default:
+            Log.d(getTagPrefix(tag), message);
+            break;
+        }
+      }
+    });
   }
 
   /**
@@ -455,7 +477,7 @@ public class AppManager {
 
 
   /**
-   * 주어진 키가 가리키는 비트맵을 메모리에서 해제한다.
+   * 주어진 키가 가리키는 비트맵을 메모리에서 해제하고 관리 대상에서 뺀다.
    * 
    * @param key 해제하려는 비트맵의 이름
    */
@@ -464,7 +486,7 @@ public class AppManager {
 
     synchronized (loadedBitmap) {
       if (loadedBitmap.containsKey(key)) {
-        loadedBitmap.get(key).recycle();
+        loadedBitmap.remove(key).recycle();
         msg += "\"" + key + "\" recycled";
       } else {
         msg = "\"" + key + "\"를 찾을 수 없음.";
@@ -473,13 +495,4 @@ public class AppManager {
 
     printDetailLog(msg);
   }
-
-
-  public int getLogicFps() {
-    return logicFps;
-  }
-
-  public void setLogicFps(int fps) {
-    logicFps = fps;
-  }
 }
@@ -1,15 +1,21 @@
 package hjsi.common;
 
+import hjsi.game.GameMaster;
 import hjsi.game.GameState;
-import hjsi.game.Mob;
-import hjsi.game.Unit;
+import hjsi.game.RenderSnapshot;
+import hjsi.game.TickProfiler;
+import hjsi.timer.Histogram;
+import hjsi.timer.TimeManager;
+import hjsi.timer.TimerMetrics;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Paint.Style;
+import android.os.Looper;
 import android.util.TypedValue;
+import android.view.Choreographer;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
@@ -18,20 +24,47 @@ import android.view.SurfaceView;
  * 때문에 게임에선 거의 서피스뷰를 사용한다고 한다. 내부적으로 더블버퍼링을 사용한다. 시스템 UI는 Game 액티비티에서
  * 처리하고(Button 등), 게임 자체를 위한 UI(타워 선택, 카메라 이동 등) 이벤트는 이 클래스에서 처리한다.
  */
-public class GameSurface extends SurfaceView implements SurfaceHolder.Callback, Runnable {
+public class GameSurface extends SurfaceView implements SurfaceHolder.Callback, Runnable, Choreographer.FrameCallback {
+  /**
+   * vsync 시간의 흔들림을 감안해서 프레임 제한 간격에서 빼주는 여유 시간. 단위 ns
+   */
+  private static final long FRAME_TOLERANCE = 2000000L;
+
   /* 서피스뷰 그리기에 필요한 객체 및 변수 */
   private Thread mThreadPainter; // 그리기 스레드
-  private boolean mIsRunning; // 그리기 스레드 동작 상태
+  private volatile boolean mIsRunning; // 그리기 스레드 동작 상태
+  private Looper painterLooper; // 그리기 스레드의 루퍼
+  private Choreographer choreographer; // 그리기 스레드에서 vsync 콜백을 받기 위한 개체
+  /**
+   * 초당 최대 프레임 수. 0 이하면 vsync마다 그린다.
+   */
+  private volatile int fpsCap = 0;
   /**
    * 카메라 클래스
    */
   private Camera camera;
+  /**
+   * 게임을 진행시키는 개체. 로직 fps 등의 정보를 가져온다.
+   */
+  private GameMaster gameMaster;
+  /**
+   * 게임 유닛을 그려주는 개체
+   */
+  private UnitRenderer renderer;
+  /**
+   * 이번 프레임에 그리는 게임 상태
+   */
+  private RenderSnapshot snapshot;
 
   /*
    * 각종 정보를 출력하는데 사용함
    */
   private Paint mPaintInfo; // 텍스트 출력용 페인트 객체
   private int mFps; // 그리기 fps
+  /* fps 계산을 위한 변수 */
+  private long lastFrameTime = 0L; // 마지막으로 그린 프레임의 vsync 시간. 단위 ns
+  private long fpsElapsedTime = 0L;
+  private int fps = 0;
 
   /**
    * 배치모드에서 격자 그리기용 페인트
@@ -43,10 +76,13 @@ public class GameSurface extends SurfaceView implements SurfaceHolder.Callback,
    * 
    * @param context getApplicationContext()를 이용하여 컨텍스트 객체를 넣어주셈
    * @param camera 카메라
+   * @param gameMaster 게임을 진행시키는 개체
    */
-  public GameSurface(Context context, Camera camera) {
+  public GameSurface(Context context, Camera camera, GameMaster gameMaster) {
     super(context);
     this.camera = camera;
+    this.gameMaster = gameMaster;
+    renderer = new UnitRenderer();
 
     // 게임 내 변수 출력용 페인트 객체 생성
     mPaintInfo = new Paint();
@@ -79,6 +115,7 @@ public class GameSurface extends SurfaceView implements SurfaceHolder.Callback,
      */
     mThreadPainter = new Thread(this);
     mIsRunning = true;
+    lastFrameTime = 0L;
     mThreadPainter.start();
   }
 
@@ -96,124 +133,175 @@ public class GameSurface extends SurfaceView implements SurfaceHolder.Callback,
      * 그리기를 시도할 경우 에러가 난다. 조건문 false를 한다고 스레드가 바로 멈추는 건 아님 그래서 join을 통해 그리기 스레드가
      * 끝날 때까지 표면 파괴를 늦춘다.
      */
-    mIsRunning = false;
+    synchronized (this) {
+      mIsRunning = false;
+      if (painterLooper != null) {
+        painterLooper.quit(); // 그리기 스레드의 Looper.loop()를 끝낸다.
+        painterLooper = null;
+      }
+    }
     try {
       mThreadPainter.join();
     } catch (Exception e) {
     }
   }
 
-  /* 실제로 그리기를 처리할 부분이다 */
+  /**
+   * 그리기 스레드. 루퍼를 만들고 Choreographer에 프레임 콜백을 등록해서 화면의 vsync마다 doFrame()이 호출되게 한다.
+   * surfaceDestroyed()에서 루퍼를 종료할 때까지 돌아간다.
+   */
   @Override
   public void run() {
-    /* fps 계산을 위한 변수 */
-    long fpsStartTime;
-    long fpsElapsedTime = 0L;
-    int fps = 0;
-
-    while (mIsRunning) {
-      // 프레임 시작 시간을 구한다.
-      fpsStartTime = System.currentTimeMillis();
-
-      // 전체 그리기 수행
-      synchronized (getHolder()) {
-        // 캔버스를 잠그는 듯
-        Canvas canvas = getHolder().lockCanvas();
-        if (canvas == null) {
-          break;
-        }
+    Looper.prepare();
+    synchronized (this) {
+      painterLooper = Looper.myLooper();
+      if (mIsRunning == false) { // 스레드가 준비되기 전에 표면이 파괴된 경우
+        return;
+      }
+    }
 
-        camera.autoScroll();
+    choreographer = Choreographer.getInstance();
+    choreographer.postFrameCallback(this);
+    Looper.loop();
+    choreographer.removeFrameCallback(this);
 
-        canvas.drawColor(Color.DKGRAY); // 게임 배경 바깥 범위를 회색으로 채운다.
+    AppManager.printDetailLog("GameSurface 스레드 종료");
+  }
 
-        /* 캔버스를 이동, 확대/축소하기 전에 기존 상태를 저장함 */
-        canvas.save();
+  /**
+   * 화면의 vsync마다 그리기 스레드에서 호출된다. 프레임 제한을 넘지 않는 선에서 한 프레임을 그린다.
+   *
+   * @param frameTimeNanos 이번 vsync 시간. 단위 ns (System.nanoTime())
+   */
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    if (mIsRunning == false) {
+      return;
+    }
+    // 다음 vsync에도 호출되도록 다시 등록한다.
+    choreographer.postFrameCallback(this);
+
+    // 프레임 제한이 있으면 최소 간격이 지나지 않은 vsync는 건너뛴다. vsync 시간이 조금씩 흔들리므로 여유를 둔다.
+    int cap = fpsCap;
+    if (cap > 0 && frameTimeNanos - lastFrameTime < 1000000000L / cap - FRAME_TOLERANCE) {
+      return;
+    }
 
-        /* 현재 카메라 위치에 맞게 캔버스를 이동시킴 */
-        canvas.translate(-camera.getX(), -camera.getY());
+    // 프레임을 구한다. 프레임율 표시는 1초마다 갱신함
+    if (lastFrameTime != 0L) {
+      fpsElapsedTime += frameTimeNanos - lastFrameTime;
+    }
+    lastFrameTime = frameTimeNanos;
+    fps++;
+    if (fpsElapsedTime >= 1000000000L) {
+      mFps = fps;
+      fps = 0;
+      fpsElapsedTime = 0L;
+    }
 
-        /* 현재 카메라 배율에 맞게 캔버스를 확대/축소함 */
-        canvas.scale(camera.getScale(), camera.getScale(), 0, 0);
+    drawFrame(frameTimeNanos);
+  }
 
-        /* 맵 배경을 그린다. */
-        canvas.drawBitmap(AppManager.getInstance().getBitmap("background"), 0, 0, null);
+  /**
+   * 한 프레임을 그린다.
+   *
+   * @param frameTimeNanos 이번 프레임의 시간. 틱 사이의 위치를 보간하는 데 사용한다.
+   */
+  private void drawFrame(long frameTimeNanos) {
+    // 전체 그리기 수행
+    synchronized (getHolder()) {
+      // 캔버스를 잠그는 듯
+      Canvas canvas = getHolder().lockCanvas();
+      if (canvas == null) {
+        return;
+      }
 
-        // 배치에 필요한 UI를 그린다.
-        if (GameState.getInstance().checkDeployMode()) {
-          int cellX = 96, cellY = 72;
-          for (int i = 0; i * cellX < 1920; i++) {
-            for (int j = 0; j * cellY < 1080; j++) {
-              canvas.drawRect(i * cellX, j * cellY, (i + 1) * cellX, (j + 1) * cellY, gridPaint);
-            }
-          }
-        }
+      camera.autoScroll();
 
-        /**
-         * game 오브젝트를 그린다
-         */
+      canvas.drawColor(Color.DKGRAY); // 게임 배경 바깥 범위를 회색으로 채운다.
 
-        // 게임의 유닛들을 그린다.
-        for (Mob mob : GameState.getInstance().getMobs()) {
-          // 1. 보이는지 검사
-          if (mob.dead)
-            continue;
+      /* 캔버스를 이동, 확대/축소하기 전에 기존 상태를 저장함 */
+      canvas.save();
 
-          // 보이므로 그린다
-          else if (mob.created)
-            mob.draw(canvas);
+      /* 현재 카메라 위치에 맞게 캔버스를 이동시킴 */
+      canvas.translate(-camera.getX(), -camera.getY());
+
+      /* 현재 카메라 배율에 맞게 캔버스를 확대/축소함 */
+      canvas.scale(camera.getScale(), camera.getScale(), 0, 0);
+
+      /* 맵 배경을 그린다. */
+      canvas.drawBitmap(AppManager.getInstance().getBitmap("background"), 0, 0, null);
+
+      // 배치에 필요한 UI를 그린다. 타워를 놓을 수 있는 타워 격자의 칸을 그린다.
+      if (GameState.getInstance().checkDeployMode()) {
+        int cellX = GameState.CELL_WIDTH, cellY = GameState.CELL_HEIGHT;
+        for (int i = 0; i < GameState.TABLE_COLS; i++) {
+          for (int j = 0; j < GameState.TABLE_ROWS; j++) {
+            canvas.drawRect(i * cellX, j * cellY, (i + 1) * cellX, (j + 1) * cellY, gridPaint);
+          }
         }
+      }
+
+      /**
+       * game 오브젝트를 그린다. 게임 상태를 직접 보지 않고 GameMaster가 마지막으로 발행한 스냅샷을 그린다.
+       */
+      snapshot = gameMaster.acquireSnapshot();
+      renderer.prepareMobFace(snapshot.getWave());
+      float alpha = interpolationAlpha(frameTimeNanos);
+
+      // 스냅샷에는 몹, 타워, 투사체, 기타 유닛 순서로 들어있다.
+      for (int i = 0; i < snapshot.getCount(); i++) {
+        // 1. 보이는지 검사
+        // if (camera.showInCamera(unit)) {
+        // 보이므로 그린다
+        renderer.draw(canvas, snapshot, i, alpha);
+        // }
 
-        /*
-         * 타워 그리기
-         */
-        GameState.getInstance().tower.draw(canvas);
 
         /*
-         * 투사체 그리기
+         * 스레드 종료가 필요한 경우 최대한 빨리 끝내기 위해 그림을 그리는 도중에도 스레드 종료 조건을 검사한다.
          */
-        for (int i = 0; i < GameState.getInstance().projs.size(); i++)
-          GameState.getInstance().projs.get(i).draw(canvas);
-
-        // 게임의 유닛들을 그린다.
-        for (Unit unit : GameState.getInstance().getUnits()) {
-          // 1. 보이는지 검사
-          // if (camera.showInCamera(unit)) {
-          // 보이므로 그린다
-          unit.draw(canvas);
-          // }
-
-
-          /*
-           * 스레드 종료가 필요한 경우 최대한 빨리 끝내기 위해 그림을 그리는 도중에도 스레드 종료 조건을 검사한다.
-           */
-          if (mIsRunning == false) {
-            break;
-          }
+        if (mIsRunning == false) {
+          break;
         }
+      }
 
 
-        canvas.restore(); // 이동, 확대/축소했던 캔버스를 원상태로 복원
+      canvas.restore(); // 이동, 확대/축소했던 캔버스를 원상태로 복원
 
-        // 테스트 정보 표시
-        displayInformation(canvas);
+      // 테스트 정보 표시
+      displayInformation(canvas);
 
-        // 캔버스의 락을 풀고 실제 화면을 갱신한다.
-        getHolder().unlockCanvasAndPost(canvas);
-      }
+      // 캔버스의 락을 풀고 실제 화면을 갱신한다.
+      getHolder().unlockCanvasAndPost(canvas);
+    }
+  }
 
-      // 프레임을 구한다.
-      fps++;
-      fpsElapsedTime += System.currentTimeMillis() - fpsStartTime;
-      if (fpsElapsedTime >= 1000) // 프레임율 표시는 1초마다 갱신함
-      {
-        mFps = fps;
-        fps = 0;
-        fpsElapsedTime = 0L;
-      }
+  /**
+   * 스냅샷이 발행된 뒤로 흐른 시간이 한 틱의 몇 퍼센트인지 구한다. 유닛은 직전 틱과 이번 틱 위치 사이의 이 비율만큼 이동한 곳에 그려진다.
+   * 그래서 화면은 로직보다 최대 한 틱 늦게 보이지만, 로직이 화면보다 느리게 돌아도 움직임이 끊기지 않는다.
+   *
+   * @param frameTimeNanos 이번 프레임의 시간
+   * @return 0 ~ 1 사이의 값
+   */
+  private float interpolationAlpha(long frameTimeNanos) {
+    int speed = gameMaster.getSpeed();
+    if (speed == GameMaster.SPEED_MAX) { // 틱이 프레임보다 훨씬 빠르므로 보간할 필요가 없다.
+      return 1f;
     }
 
-    AppManager.printDetailLog("GameSurface 스레드 종료");
+    float tickNanos = GameMaster.TICK_MS * 1000000f / speed; // 실제 시간으로 한 틱의 길이
+    float alpha = (frameTimeNanos - snapshot.getPublishTime()) / tickNanos;
+    return Math.max(0f, Math.min(1f, alpha));
+  }
+
+  /**
+   * 그리기 프레임율의 상한을 정한다. 화면의 vsync보다 자주 그리지는 않는다.
+   *
+   * @param fpsCap 초당 최대 프레임 수. 0 이하면 vsync마다 그린다.
+   */
+  public void setFpsCap(int fpsCap) {
+    this.fpsCap = fpsCap;
   }
 
   /* 개발 참고용 정보 표시 */
@@ -231,7 +319,7 @@ public class GameSurface extends SurfaceView implements SurfaceHolder.Callback,
     /*
      * 그리기 fps 출력
      */
-    canvas.drawText(mFps + " fps (" + AppManager.getInstance().getLogicFps() + " fps)", xForText, yForText, mPaintInfo);
+    canvas.drawText(mFps + " fps (" + gameMaster.getLogicFps() + " fps)", xForText, yForText, mPaintInfo);
 
     /*
      * 카메라 좌상단 좌표 (논리적인 기준점) 출력
@@ -250,27 +338,62 @@ public class GameSurface extends SurfaceView implements SurfaceHolder.Callback,
      * 게임 시계 출력
      */
     canvas.translate(0, yForText);
-    String min = String.format("%02d", (int) (GameState.getInstance().getWorldTime() / 60));
-    String sec = String.format("%02d", (int) (GameState.getInstance().getWorldTime() % 60));
+    String min = String.format("%02d", (int) (snapshot.getWorldTime() / 60));
+    String sec = String.format("%02d", (int) (snapshot.getWorldTime() % 60));
     canvas.drawText("World Time: " + min + ":" + sec, xForText, yForText, mPaintInfo);
 
     /*
      * 현재 생성된 몹수
      */
     canvas.translate(0, yForText);
-    canvas.drawText("Mob: " + GameState.getInstance().curMob, xForText, yForText, mPaintInfo);
+    canvas.drawText("Mob: " + snapshot.getCurMob(), xForText, yForText, mPaintInfo);
 
     /*
      * 현재 죽은 몹수
      */
     canvas.translate(0, yForText);
-    canvas.drawText("Dead Mob: " + GameState.getInstance().deadMob, xForText, yForText, mPaintInfo);
+    canvas.drawText("Dead Mob: " + snapshot.getDeadMob(), xForText, yForText, mPaintInfo);
 
     /*
      * 현재 웨이브
      */
     canvas.translate(0, yForText);
-    canvas.drawText("Wave: " + GameState.getInstance().wave, xForText, yForText, mPaintInfo);
+    canvas.drawText("Wave: " + snapshot.getWave(), xForText, yForText, mPaintInfo);
+
+    /*
+     * 틱의 단계별 소요 시간 (us)
+     */
+    TickProfiler profiler = gameMaster.getProfiler();
+    if (profiler.hasSummary()) {
+      canvas.translate(0, yForText);
+      canvas.drawText("Tick(us) min / avg / p99", xForText, yForText, mPaintInfo);
+      for (int phase = 0; phase < TickProfiler.PHASE_COUNT; phase++) {
+        canvas.translate(0, yForText);
+        canvas.drawText(TickProfiler.getPhaseName(phase) + ": " + TickProfiler.toMicros(profiler.getMin(phase)) + " / "
+            + TickProfiler.toMicros(profiler.getAvg(phase)) + " / " + TickProfiler.toMicros(profiler.getP99(phase)), xForText,
+            yForText, mPaintInfo);
+      }
+    }
+
+    /*
+     * 타이머 작업이 작업큐에서 기다린 시간 (us)
+     */
+    TimerMetrics timerMetrics = TimeManager.getMetrics();
+    Histogram timerWait = timerMetrics != null ? timerMetrics.getWait(TimerMetrics.CALLBACK) : null;
+    if (timerWait != null && timerWait.getTotal() > 0) {
+      canvas.translate(0, yForText);
+      canvas.drawText("Timer wait(us) p99: " + timerWait.getPercentile(99) + " / max: " + timerWait.getMax()
+          + " / queue max: " + timerMetrics.getQueueDepth().getMax(), xForText, yForText, mPaintInfo);
+    }
+
+    /*
+     * 과부하로 시간을 버린 횟수
+     */
+    if (gameMaster.getOverloadCount() > 0) {
+      canvas.translate(0, yForText);
+      canvas.drawText("Overload: " + gameMaster.getOverloadCount() + " (" + gameMaster.getDroppedTime() + "ms dropped)",
+          xForText, yForText, mPaintInfo);
+    }
 
     canvas.restore();
   }
@@ -0,0 +1,126 @@
+package hjsi.common;
+
+import hjsi.game.RenderSnapshot;
+
+import java.io.IOException;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory.Options;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+/**
+ * 게임 유닛을 캔버스에 그린다. 게임 로직이 발행한 RenderSnapshot에는 그림의 이름(faceName)만 들어있고, 실제 비트맵은 여기서
+ * AppManager를 통해 찾아서 그린다. GameSurface의 그리기 스레드에서만 사용한다.
+ */
+public class UnitRenderer {
+  /**
+   * 몹 그림을 줄여서 불러올 때의 크기
+   */
+  private static final int MOB_FACE_SIZE = 64;
+
+  private Paint paintFace; // 비트맵 출력용
+  private Paint paintText; // 동상 체력 출력용
+  private Paint paintRange; // 타워 사정거리 출력용
+
+  /**
+   * 현재 불러와 있는 몹 그림의 웨이브 번호. 0이면 아직 불러온 그림이 없다.
+   */
+  private int mobFaceWave = 0;
+
+  public UnitRenderer() {
+    paintFace = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    paintText = new Paint();
+    paintText.setTextSize(32);
+
+    paintRange = new Paint();
+    paintRange.setAntiAlias(true);
+    paintRange.setStyle(Paint.Style.STROKE); // 원의 윤곽선만 그림
+    paintRange.setStrokeWidth(3); // 윤곽선 두께
+    paintRange.setColor(Color.GREEN); // 윤곽선은 초록색
+  }
+
+  /**
+   * 현재 웨이브의 몹 그림을 준비한다. 웨이브가 바뀌었으면 이전 웨이브의 몹 그림은 해제하고 새로운 그림을 불러온다. 그림을 읽는 작업은
+   * 게임을 진행시키는 스레드가 아니라 그리기 스레드에서 하게 된다.
+   *
+   * @param wave 현재 웨이브 번호
+   */
+  public void prepareMobFace(int wave) {
+    if (wave == mobFaceWave) {
+      return;
+    }
+
+    if (mobFaceWave != 0) {
+      AppManager.getInstance().recycleBitmap("mob" + mobFaceWave);
+    }
+    mobFaceWave = wave;
+
+    Options option = new Options();
+    option.inSampleSize = 16;
+    String key = "mob" + wave;
+    Bitmap mImgMob = null;
+
+    try {
+      mImgMob = AppManager.getInstance().readImageFile("img/mobs/" + key + ".png", option);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+
+    if (mImgMob == null) {
+      AppManager.printErrorLog("\"" + key + "\" 그림을 불러오지 못함.");
+      return;
+    }
+
+    if ((mImgMob.getWidth() != MOB_FACE_SIZE) || (mImgMob.getHeight() != MOB_FACE_SIZE)) {
+      mImgMob = Bitmap.createScaledBitmap(mImgMob, MOB_FACE_SIZE, MOB_FACE_SIZE, true);
+    }
+
+    AppManager.getInstance().addBitmap(key, mImgMob);
+  }
+
+  /**
+   * 스냅샷의 i번째 대상을 그린다. 타워는 사정거리를, 동상은 체력을 함께 표시한다.
+   *
+   * @param canvas 그림이 출력될 캔버스.
+   * @param snapshot 그릴 게임 상태
+   * @param i 그릴 대상의 인덱스
+   * @param alpha 직전 틱(0)과 스냅샷의 틱(1) 사이에서 그릴 위치의 비율
+   */
+  public void draw(Canvas canvas, RenderSnapshot snapshot, int i, float alpha) {
+    float x = snapshot.getX(i, alpha);
+    float y = snapshot.getY(i, alpha);
+
+    Bitmap face = AppManager.getInstance().getBitmap(snapshot.getFace(i));
+    if (face != null) {
+      canvas.drawBitmap(face, x, y, paintFace);
+    }
+
+    switch (snapshot.getKind(i)) {
+      case RenderSnapshot.KIND_TOWER:
+        showRange(canvas, x + snapshot.getWidth(i) / 2, y + snapshot.getHeight(i) / 2, snapshot.getValue(i));
+        break;
+      case RenderSnapshot.KIND_STATUE:
+        int hpCur = snapshot.getValue(i) / 1000;
+        int hpMax = snapshot.getValueMax(i) / 1000;
+        String hpText = hpCur + "/" + hpMax + "(" + (int) ((float) hpCur / (float) hpMax * 100f) + "%)";
+
+        canvas.drawText(hpText, x, y + snapshot.getHeight(i) + 42, paintText);
+        break;
+    }
+  }
+
+  /**
+   * 범위 그려주는 메소드
+   *
+   * @param canvas
+   * @param cntrX 범위의 중심 x 좌표
+   * @param cntrY 범위의 중심 y 좌표
+   * @param range 타격 범위
+   */
+  public void showRange(Canvas canvas, float cntrX, float cntrY, int range) {
+    canvas.drawCircle(cntrX, cntrY, range, paintRange);
+  }
+}
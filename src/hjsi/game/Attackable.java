@@ -1,6 +0,0 @@
-package hjsi.game;
-
-public interface Attackable
-{
-    void attack();
-}
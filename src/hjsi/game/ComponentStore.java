@@ -0,0 +1,126 @@
+package hjsi.game;
+
+/**
+ * 한 종류의 컴포넌트를 모아두는 저장소의 공통 부분. 컴포넌트 값은 하위 클래스가 속성별 기본형 배열에 나눠 담고, 이 클래스는 어느 개체가 몇
+ * 번째 칸을 쓰는지만 관리한다. 컴포넌트가 붙은 개체는 항상 배열의 앞쪽 [0, count)에 빈틈없이 모여있으므로, 시스템은 자기가 필요한 컴포넌트의
+ * 배열만 처음부터 차례대로 읽는다. 컴포넌트를 떼면 마지막 칸을 그 자리로 옮긴다.
+ *
+ * 개체의 핸들에서 핸들 칸 번호를 꺼내 sparse 배열의 인덱스로 쓰므로, 개체로 칸을 찾는 것은 배열을 두 번 읽는 O(1) 작업이다.
+ *
+ * 게임을 진행시키는 스레드에서만 사용한다.
+ */
+abstract class ComponentStore {
+  private static final int INITIAL_CAPACITY = 8;
+
+  /**
+   * 컴포넌트가 붙은 개체 수
+   */
+  int count = 0;
+  /**
+   * 칸별로 컴포넌트가 붙은 개체의 핸들
+   */
+  int[] entity = new int[0];
+  /**
+   * 핸들 칸 번호별로 그 개체가 쓰는 칸의 인덱스. 컴포넌트가 없으면 -1
+   */
+  private int[] sparse = new int[0];
+
+  /**
+   * 컴포넌트 값을 담는 배열을 capacity 크기로 늘린다. 앞쪽 count개의 값은 그대로 옮긴다.
+   */
+  abstract void allocate(int capacity);
+
+  /**
+   * from번째 칸의 컴포넌트 값을 to번째 칸으로 복사한다.
+   */
+  abstract void copy(int from, int to);
+
+  /**
+   * 개체에 컴포넌트를 붙인다. 값은 호출한 쪽에서 반환된 칸에 채운다.
+   *
+   * @param e 개체의 핸들
+   * @return 개체가 쓰는 칸의 인덱스. 이미 붙어있으면 그 칸
+   */
+  int attach(int e) {
+    int i = indexOf(e);
+    if (i >= 0) {
+      return i;
+    }
+
+    int slot = HandleTable.slotOf(e);
+    if (slot >= sparse.length) {
+      int[] newSparse = new int[Math.max(slot + 1, sparse.length * 2)];
+      System.arraycopy(sparse, 0, newSparse, 0, sparse.length);
+      for (int j = sparse.length; j < newSparse.length; j++) {
+        newSparse[j] = -1;
+      }
+      sparse = newSparse;
+    }
+    if (count == entity.length) {
+      int capacity = Math.max(INITIAL_CAPACITY, count * 2);
+      entity = grow(entity, capacity);
+      allocate(capacity);
+    }
+
+    i = count++;
+    entity[i] = e;
+    sparse[slot] = i;
+    return i;
+  }
+
+  /**
+   * 개체에서 컴포넌트를 뗀다. 붙어있지 않으면 아무것도 하지 않는다.
+   */
+  void detach(int e) {
+    int i = indexOf(e);
+    if (i < 0) {
+      return;
+    }
+
+    int last = --count;
+    sparse[HandleTable.slotOf(e)] = -1;
+    if (i != last) {
+      entity[i] = entity[last];
+      copy(last, i);
+      sparse[HandleTable.slotOf(entity[i])] = i;
+    }
+  }
+
+  /**
+   * @param e 개체의 핸들
+   * @return 개체가 쓰는 칸의 인덱스. 컴포넌트가 없거나 HandleTable.NONE이면 -1
+   */
+  int indexOf(int e) {
+    if (e < 0) {
+      return -1;
+    }
+    int slot = HandleTable.slotOf(e);
+    if (slot >= sparse.length) {
+      return -1;
+    }
+    int i = sparse[slot];
+    return (i >= 0 && entity[i] == e) ? i : -1;
+  }
+
+  /**
+   * @return 컴포넌트가 붙은 개체 수
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * @return i번째 칸을 쓰는 개체의 핸들
+   */
+  public int getEntity(int i) {
+    return entity[i];
+  }
+
+  int[] grow(int[] old, int capacity) {
+    int[] array = new int[capacity];
+    if (old != null) {
+      System.arraycopy(old, 0, array, 0, count);
+    }
+    return array;
+  }
+}
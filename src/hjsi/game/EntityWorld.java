@@ -0,0 +1,261 @@
+package hjsi.game;
+
+import hjsi.timer.TimeManager;
+
+/**
+ * 동상, 타워처럼 몹과 투사체가 아닌 게임 개체를 모아두는 곳. 개체는 핸들(HandleTable) 하나일 뿐이고, 개체가 무엇인지는 어떤 컴포넌트가
+ * 붙어있는지로 정해진다. 컴포넌트는 종류별 저장소(ComponentStore)에 빈틈없이 모여있고, 시스템(update로 시작하는 메소드)은 자기가 필요한
+ * 컴포넌트의 저장소만 돈다. 새로운 행동은 클래스를 상속하지 않고 컴포넌트 저장소와 그것을 도는 시스템을 추가해서 만든다.
+ *
+ * 몹과 투사체는 수가 많고 모두 같은 컴포넌트를 가지므로 따로 MobStore와 ProjectileStore에 담는다.
+ *
+ * 게임을 진행시키는 스레드에서만 사용한다.
+ */
+public class EntityWorld {
+  /**
+   * 동상의 크기
+   */
+  public static final int STATUE_WIDTH = 124;
+  public static final int STATUE_HEIGHT = 204;
+
+  private final HandleTable handles = new HandleTable();
+
+  /*
+   * 컴포넌트 저장소
+   */
+  final PositionStore positions = new PositionStore();
+  final HealthStore healths = new HealthStore();
+  final WeaponStore weapons = new WeaponStore();
+  final SpriteStore sprites = new SpriteStore();
+
+  /**
+   * 아무 컴포넌트도 붙지 않은 개체를 만든다.
+   *
+   * @return 개체의 핸들
+   */
+  public int create() {
+    return handles.allocate(0);
+  }
+
+  /**
+   * @return 개체가 아직 없어지지 않았으면 true
+   */
+  public boolean isAlive(int e) {
+    return handles.resolve(e) >= 0;
+  }
+
+  /**
+   * 개체를 없앤다. 붙어있던 컴포넌트를 모두 떼고, 쿨타임처럼 개체가 빌려 쓰던 것을 돌려준다. 없앤 개체의 핸들은 다른 개체를 가리키지 않는다.
+   */
+  public void destroy(int e) {
+    if (!isAlive(e)) {
+      return;
+    }
+
+    int i = healths.indexOf(e);
+    if (i >= 0) {
+      healths.release(i);
+    }
+    positions.detach(e);
+    healths.detach(e);
+    weapons.detach(e);
+    sprites.detach(e);
+    handles.release(e);
+  }
+
+  /**
+   * 동상을 만든다. 능력치는 유저 데이터가 생기기 전까지 고정값이다.
+   *
+   * @return 동상의 핸들
+   */
+  public int createStatue(int x, int y) {
+    int e = create();
+    positions.set(e, x, y, STATUE_WIDTH, STATUE_HEIGHT);
+    sprites.set(e, RenderSnapshot.KIND_STATUE, STATUE_WIDTH, STATUE_HEIGHT, "statue1");
+    // 체력 100 / 1000, 방어력 10, 10ms마다 1.5 재생
+    healths.set(e, Fixed.fromInt(100), Fixed.fromInt(1000), Fixed.fromInt(10), 1500, 10);
+    return e;
+  }
+
+  /**
+   * 타워를 배치한다.
+   *
+   * @param tower 배치할 타워의 정보
+   * @param path 몹이 지나가는 길. 주어지면 사정거리가 닿는 길 위의 구간을 미리 구해둔다. 흐름장을 따라가는 맵이면 null
+   * @return 배치된 타워의 핸들
+   */
+  public int createTower(Tower tower, int x, int y, Path path) {
+    int e = create();
+    positions.set(e, x, y, Tower.WIDTH, Tower.HEIGHT);
+    sprites.set(e, RenderSnapshot.KIND_TOWER, Tower.WIDTH, Tower.HEIGHT, tower.faceName);
+    weapons.set(e, tower.damage, tower.range, tower.attackSpeed);
+    if (path != null) {
+      int p = positions.indexOf(e);
+      weapons.cover[weapons.indexOf(e)] = path.coverage(positions.cntrX[p], positions.cntrY[p], tower.range, MobStore.WIDTH / 2,
+          MobStore.HEIGHT / 2);
+    }
+    return e;
+  }
+
+  /**
+   * 재생 주기가 돌아온 개체의 체력을 회복시킨다.
+   */
+  void updateRegen() {
+    HealthStore h = healths;
+    for (int i = 0; i < h.count; i++) {
+      int cooldown = h.regenCooldown[i];
+      if (cooldown >= 0 && TimeManager.isCooldownDone(cooldown)) {
+        h.hp[i] = Math.min(Fixed.add(h.hp[i], h.regen[i]), h.hpMax[i]);
+        TimeManager.resetCooldown(cooldown);
+      }
+    }
+  }
+
+  /**
+   * 공격할 수 있는 개체가 사정거리 안의 몹에게 투사체를 쏘게 한다. 노리던 몹이 살아서 사정거리 안에 있는 동안은 계속 그 몹을 노린다.
+   *
+   * 무기는 다음에 공격할 수 있는 틱 순서로 큐에서 꺼내므로 쿨타임 중인 무기는 건드리지 않는다. 쏘았으면 공격속도만큼 뒤에, 노릴 몹이
+   * 없었으면 바로 다음 틱에 다시 공격할 수 있다.
+   *
+   * 길 위의 사정거리 구간을 알고 있는 무기는 거리 계산 없이 index에서 구간 안의 가장 멀리 간 몹을 노린다. 구간을 모르거나 index가
+   * null이면 grid에서 주변 칸의 몹을 찾는다.
+   *
+   * @param tick 현재 틱
+   * @param mobs 살아있는 몹
+   * @param grid 몹의 현재 위치로 만든 격자
+   * @param index 몹을 길을 따라 이동한 거리 순서로 늘어놓은 목록. 몹이 길을 따라가지 않으면 null
+   * @param projs 쏜 투사체를 담을 곳
+   */
+  void updateWeapons(long tick, MobStore mobs, SpatialGrid grid, ProgressIndex index, ProjectileStore projs) {
+    WeaponStore w = weapons;
+    ReadyQueue ready = w.ready;
+    while (ready.peekTick() <= tick) {
+      long readyTick = ready.peekTick();
+      int i = w.indexOf(ready.pop());
+      // 없어진 무기거나 큐에 들어간 뒤로 다음 틱이 바뀐 무기는 버린다.
+      if (i < 0 || w.nextTick[i] != readyTick) {
+        continue;
+      }
+      int p = positions.indexOf(w.entity[i]);
+      if (p < 0) {
+        w.rearm(i, tick + 1);
+        continue;
+      }
+
+      int cntrX = positions.cntrX[p];
+      int cntrY = positions.cntrY[p];
+      int range = w.range[i];
+
+      // 노리던 몹이 죽었거나 사정거리를 벗어났으면 사정거리 안의 몹을 새로 찾는다.
+      int m = mobs.indexOf(w.target[i]);
+      if (index != null && w.cover[i] != null) {
+        if (m < 0 || !w.covers(i, mobs.progress[m])) {
+          m = findOnPath(w.cover[i], index, mobs);
+          w.target[i] = (m >= 0) ? mobs.handle[m] : HandleTable.NONE;
+        }
+      } else if (m < 0 || !Fixed.inRange(mobs.cntrX[m] - cntrX, mobs.cntrY[m] - cntrY, range)) {
+        m = grid.findInRange(mobs, cntrX, cntrY, range);
+        w.target[i] = (m >= 0) ? mobs.handle[m] : HandleTable.NONE;
+      }
+
+      if (w.target[i] != HandleTable.NONE) {
+        projs.fire(cntrX, cntrY, w.damage[i], w.target[i]);
+        w.rearm(i, tick + w.period[i]);
+      } else {
+        w.rearm(i, tick + 1);
+      }
+    }
+  }
+
+  /**
+   * @param cover 사정거리가 닿는 길 위의 거리 구간
+   * @return 구간 안에 있는 몹 중에 가장 멀리 간 몹의 인덱스. 없으면 -1
+   */
+  private static int findOnPath(int[] cover, ProgressIndex index, MobStore mobs) {
+    int best = -1;
+    for (int k = 0; k < cover.length; k += 2) {
+      int m = index.findLast(cover[k], cover[k + 1]);
+      if (m >= 0 && (best < 0 || mobs.progress[m] > mobs.progress[best])) {
+        best = m;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * 주어진 종류의 그림이 붙은 개체를 스냅샷에 추가한다. 체력이 있으면 체력을, 무기가 있으면 사정거리를 추가 정보로 넣는다.
+   *
+   * @param kind RenderSnapshot의 KIND_로 시작하는 상수 중 하나
+   */
+  void writeSnapshot(RenderSnapshot snapshot, int kind) {
+    SpriteStore s = sprites;
+    for (int i = 0; i < s.count; i++) {
+      if (s.kind[i] != kind) {
+        continue;
+      }
+      int e = s.entity[i];
+      int p = positions.indexOf(e);
+      if (p < 0) {
+        continue;
+      }
+
+      int value = 0;
+      int valueMax = 0;
+      int h = healths.indexOf(e);
+      int w = weapons.indexOf(e);
+      if (h >= 0) {
+        value = healths.hp[h];
+        valueMax = healths.hpMax[h];
+      } else if (w >= 0) {
+        value = weapons.range[w];
+      }
+
+      snapshot.add(kind, positions.x[p], positions.y[p], positions.prevX[p], positions.prevY[p], s.width[i],
+          s.height[i], value, valueMax, s.face[i]);
+    }
+  }
+
+  /**
+   * 주어진 게임 좌표 위에 그려진 개체를 찾는다. 여러 개체가 걸쳐져 있으면 늦게 추가된 개체가 우선이다.
+   *
+   * @return 개체의 핸들. 없으면 HandleTable.NONE
+   */
+  public int findAt(int x, int y) {
+    SpriteStore s = sprites;
+    for (int i = s.count - 1; i >= 0; i--) {
+      int p = positions.indexOf(s.entity[i]);
+      if (p < 0) {
+        continue;
+      }
+      int left = positions.x[p];
+      int top = positions.y[p];
+      if ((left < x && x < left + s.width[i]) && (top < y && y < top + s.height[i]))
+        return s.entity[i];
+    }
+    return HandleTable.NONE;
+  }
+
+  /**
+   * @return 로그 출력용 개체 정보
+   */
+  public String describe(int e) {
+    StringBuilder sb = new StringBuilder("entity ").append(e);
+    int i = sprites.indexOf(e);
+    if (i >= 0) {
+      sb.append(' ').append(sprites.face[i]);
+    }
+    i = positions.indexOf(e);
+    if (i >= 0) {
+      sb.append(" (").append(positions.x[i]).append(", ").append(positions.y[i]).append(')');
+    }
+    i = healths.indexOf(e);
+    if (i >= 0) {
+      sb.append(" hp ").append(healths.hp[i]).append('/').append(healths.hpMax[i]);
+    }
+    i = weapons.indexOf(e);
+    if (i >= 0) {
+      sb.append(" dmg ").append(weapons.damage[i]).append(" range ").append(weapons.range[i]);
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,210 @@
+package hjsi.game;
+
+/**
+ * 게임 로직에서 쓰는 고정소수점 계산 모음. 능력치(체력, 재생량, 방어력 등)는 소수점 아래 세 자리까지 SCALE(1000)배 해서 int로 다룬다.
+ * 예를 들면, 10.5의 체력은 10500이다. 위치와 거리는 픽셀 단위 int 그대로 쓴다.
+ *
+ * 게임 로직은 float와 double을 쓰지 않고 여기 있는 정수 계산만 쓴다. 오래된 ARM 기기에서 부동소수점 계산이 느린 것을 피하고, 어느
+ * 기기에서나 계산 결과가 비트 단위까지 같게 하기 위해서다. 삼각함수 표는 처음 한 번만 StrictMath로 만들기 때문에 역시 기기마다 같다.
+ *
+ * 덧셈과 곱셈은 int 범위를 넘으면 감싸지 않고 최댓값이나 최솟값에 멈춘다(포화 연산).
+ */
+public final class Fixed {
+  /**
+   * 고정소수점 값 1.0
+   */
+  public static final int SCALE = 1000;
+
+  /**
+   * 각도 단위. 한 바퀴(360도)를 ANGLES 칸으로 나눈다. 각도는 int 하나이고, 한 바퀴가 넘어가면 (angle & ANGLE_MASK)로 되돌린다.
+   */
+  public static final int ANGLE_BITS = 10;
+  public static final int ANGLES = 1 << ANGLE_BITS;
+  public static final int ANGLE_MASK = ANGLES - 1;
+
+  /**
+   * sin 표. SCALE배 한 값이다.
+   */
+  private static final int[] SIN = new int[ANGLES];
+  /**
+   * atan 표. 기울기 k / ATAN_STEPS (0 ~ 1)의 각도다. 각도 단위는 ANGLES
+   */
+  private static final int ATAN_STEPS = 256;
+  private static final int[] ATAN = new int[ATAN_STEPS + 1];
+
+  static {
+    for (int i = 0; i < ANGLES; i++) {
+      SIN[i] = (int) StrictMath.round(StrictMath.sin(i * 2 * StrictMath.PI / ANGLES) * SCALE);
+    }
+    for (int k = 0; k <= ATAN_STEPS; k++) {
+      ATAN[k] = (int) StrictMath.round(StrictMath.atan((double) k / ATAN_STEPS) * ANGLES / (2 * StrictMath.PI));
+    }
+  }
+
+  private Fixed() {
+  }
+
+  /**
+   * @param n 정수
+   * @return n의 고정소수점 값
+   */
+  public static int fromInt(int n) {
+    return saturate((long) n * SCALE);
+  }
+
+  /**
+   * @return 고정소수점 값의 정수 부분. 0 쪽으로 버린다.
+   */
+  public static int toInt(int a) {
+    return a / SCALE;
+  }
+
+  /**
+   * long 값을 int 범위 안으로 자른다.
+   */
+  public static int saturate(long value) {
+    if (value > Integer.MAX_VALUE) {
+      return Integer.MAX_VALUE;
+    }
+    if (value < Integer.MIN_VALUE) {
+      return Integer.MIN_VALUE;
+    }
+    return (int) value;
+  }
+
+  /**
+   * 포화 덧셈. 고정소수점 값끼리, 정수끼리 모두 쓸 수 있다.
+   */
+  public static int add(int a, int b) {
+    return saturate((long) a + b);
+  }
+
+  /**
+   * 포화 뺄셈
+   */
+  public static int sub(int a, int b) {
+    return saturate((long) a - b);
+  }
+
+  /**
+   * 고정소수점 값끼리의 포화 곱셈. 0 쪽으로 버린다.
+   */
+  public static int mul(int a, int b) {
+    return saturate((long) a * b / SCALE);
+  }
+
+  /**
+   * 고정소수점 값에 정수를 곱한다. 포화 곱셈이다.
+   */
+  public static int mulInt(int a, int n) {
+    return saturate((long) a * n);
+  }
+
+  /**
+   * 고정소수점 값끼리의 나눗셈. 0 쪽으로 버린다.
+   *
+   * @throws ArithmeticException b가 0일 때
+   */
+  public static int div(int a, int b) {
+    return saturate((long) a * SCALE / b);
+  }
+
+  /**
+   * 값을 [min, max] 범위 안으로 자른다.
+   */
+  public static int clamp(int a, int min, int max) {
+    return (a < min) ? min : (a > max) ? max : a;
+  }
+
+  /**
+   * @return 거리의 제곱. int 좌표끼리라면 넘치지 않는다.
+   */
+  public static long distSq(int dx, int dy) {
+    return (long) dx * dx + (long) dy * dy;
+  }
+
+  /**
+   * (int) sqrt(dx * dx + dy * dy) <= range 와 같은 조건을 제곱근 없이 검사한다.
+   *
+   * @return 거리가 사정거리 안이면 true
+   */
+  public static boolean inRange(int dx, int dy, int range) {
+    long limit = (long) (range + 1) * (range + 1);
+    return distSq(dx, dy) < limit;
+  }
+
+  /**
+   * 정수 제곱근. 비트 단위로 구하므로 나눗셈과 부동소수점을 쓰지 않는다.
+   *
+   * @param n 0 이상의 값
+   * @return floor(sqrt(n)). n이 음수면 0
+   */
+  public static long isqrt(long n) {
+    if (n <= 0) {
+      return 0;
+    }
+    long root = 0L;
+    long bit = 1L << ((63 - Long.numberOfLeadingZeros(n)) & ~1);
+    while (bit != 0) {
+      if (n >= root + bit) {
+        n -= root + bit;
+        root = (root >> 1) + bit;
+      } else {
+        root >>= 1;
+      }
+      bit >>= 2;
+    }
+    return root;
+  }
+
+  /**
+   * @return 두 점 사이의 거리. 픽셀 단위로 버린다.
+   */
+  public static int dist(int dx, int dy) {
+    return saturate(isqrt(distSq(dx, dy)));
+  }
+
+  /**
+   * @param angle 각도. 단위 ANGLES
+   * @return sin 값. SCALE배 한 값이다.
+   */
+  public static int sin(int angle) {
+    return SIN[angle & ANGLE_MASK];
+  }
+
+  /**
+   * @param angle 각도. 단위 ANGLES
+   * @return cos 값. SCALE배 한 값이다.
+   */
+  public static int cos(int angle) {
+    return SIN[(angle + ANGLES / 4) & ANGLE_MASK];
+  }
+
+  /**
+   * (dx, dy) 방향의 각도를 구한다. x축 양의 방향이 0이고 y축 양의 방향(화면 아래쪽)으로 커진다.
+   *
+   * @return 각도. 단위 ANGLES, 범위 [0, ANGLES). (0, 0)이면 0
+   */
+  public static int atan2(int dy, int dx) {
+    if (dx == 0 && dy == 0) {
+      return 0;
+    }
+    long ax = Math.abs((long) dx);
+    long ay = Math.abs((long) dy);
+
+    /* 첫 번째 팔분면(0 ~ 45도)으로 바꿔서 표를 찾고 되돌린다. */
+    int angle;
+    if (ay <= ax) {
+      angle = ATAN[(int) ((ay * ATAN_STEPS + ax / 2) / ax)];
+    } else {
+      angle = ANGLES / 4 - ATAN[(int) ((ax * ATAN_STEPS + ay / 2) / ay)];
+    }
+    if (dx < 0) {
+      angle = ANGLES / 2 - angle;
+    }
+    if (dy < 0) {
+      angle = ANGLES - angle;
+    }
+    return angle & ANGLE_MASK;
+  }
+}
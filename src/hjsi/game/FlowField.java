@@ -0,0 +1,403 @@
+package hjsi.game;
+
+/**
+ * 타워 격자 위에서 몹이 목적지까지 가는 길을 알려주는 흐름장. 칸마다 목적지까지 몇 칸을 가야 하는지(거리)와 다음에 갈 칸을 적어두고, 모든
+ * 몹이 이것 하나를 같이 본다. 몹은 자기가 있는 칸의 다음 칸만 찾아보면 되므로 이동하는 데 몹마다 한 번의 조회로 끝난다.
+ *
+ * 타워가 놓인 칸은 막힌 칸이다. 타워를 놓거나 치우면 전체를 다시 계산하지 않고 거리가 바뀔 수 있는 칸만 다시 계산한다. 출발 칸에서
+ * 목적지까지 가는 길을 완전히 막는 배치는 받아들이지 않는다.
+ *
+ * 이웃은 상하좌우 네 칸이고, 한 칸을 갈 때마다 거리가 1씩 늘어난다. 게임을 진행시키는 스레드에서만 사용한다.
+ */
+public class FlowField {
+  /**
+   * 목적지까지 갈 수 없는 칸의 거리
+   */
+  public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  private final int cols;
+  private final int rows;
+  private final int cellWidth;
+  private final int cellHeight;
+  private final int goal;
+  private final int spawn;
+
+  private final boolean[] blocked;
+  /**
+   * 칸별로 목적지까지의 거리
+   */
+  private final int[] dist;
+  /**
+   * 칸별로 다음에 갈 칸. 목적지거나 갈 수 없으면 자기 자신
+   */
+  private final int[] next;
+
+  /*
+   * 부분 재계산용 작업 공간. 만들 때 한 번만 할당한다.
+   */
+  private final int[] queue; // 원형 큐
+  private final boolean[] queued;
+  private final int[] touched; // 거리가 바뀌었을 수 있는 칸의 목록
+  private final int[] touchMark; // 칸별로 touched에 들어간 회차
+  private final int[] savedDist; // touched의 칸별 원래 거리. 배치를 되돌릴 때 쓴다.
+  private int touchedCount = 0;
+  private int touchRound = 0;
+  private final int[] neighbor = new int[4];
+
+  /**
+   * @param cols 격자의 열 수
+   * @param rows 격자의 행 수
+   * @param cellWidth 칸의 크기. 단위 픽셀
+   * @param cellHeight 칸의 크기
+   * @param spawn 몹이 출발하는 칸 (cellOf())
+   * @param goal 몹이 도착할 칸 (cellOf())
+   */
+  public FlowField(int cols, int rows, int cellWidth, int cellHeight, int spawn, int goal) {
+    this.cols = cols;
+    this.rows = rows;
+    this.cellWidth = cellWidth;
+    this.cellHeight = cellHeight;
+    this.spawn = spawn;
+    this.goal = goal;
+
+    int n = cols * rows;
+    blocked = new boolean[n];
+    dist = new int[n];
+    next = new int[n];
+    queue = new int[n];
+    queued = new boolean[n];
+    touched = new int[n];
+    touchMark = new int[n];
+    savedDist = new int[n];
+
+    computeAll();
+  }
+
+  /**
+   * 목적지부터 너비 우선 탐색으로 모든 칸의 거리를 계산한다.
+   */
+  private void computeAll() {
+    for (int c = 0; c < dist.length; c++) {
+      dist[c] = UNREACHABLE;
+    }
+    dist[goal] = 0;
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = goal;
+    while (head < tail) {
+      int c = queue[head++];
+      int count = neighbors(c);
+      for (int k = 0; k < count; k++) {
+        int nb = neighbor[k];
+        if (!blocked[nb] && dist[nb] == UNREACHABLE) {
+          dist[nb] = dist[c] + 1;
+          queue[tail++] = nb;
+        }
+      }
+    }
+    for (int c = 0; c < next.length; c++) {
+      updateNext(c);
+    }
+  }
+
+  /**
+   * 칸을 막는다. 타워를 놓을 때 호출한다. 거리가 늘어날 수 있는 칸, 즉 이 칸을 거쳐서만 목적지에 가던 칸들만 다시 계산한다.
+   *
+   * @return 막았으면 true. 이미 막혀있거나, 출발 칸이나 목적지거나, 막으면 출발 칸에서 목적지로 갈 수 없게 되면 false
+   */
+  public boolean block(int col, int row) {
+    int cell = cellOf(col, row);
+    if (blocked[cell] || cell == goal || cell == spawn) {
+      return false;
+    }
+
+    beginTouch();
+    blocked[cell] = true;
+    touch(cell);
+
+    /*
+     * 1. 거리가 작은 칸부터 차례로, 더 이상 거리가 1 작은 이웃을 거쳐 갈 수 없는 칸을 골라낸다. 같은 거리의 칸은 모두 처리한 다음에
+     * 다음 거리로 넘어가므로, 칸을 검사할 때는 거리가 1 작은 이웃이 골라내졌는지가 이미 정해져 있다.
+     */
+    int head = 0;
+    int tail = 0;
+    int count = neighbors(cell);
+    for (int k = 0; k < count; k++) {
+      int nb = neighbor[k];
+      if (!blocked[nb] && dist[cell] != UNREACHABLE && dist[nb] == dist[cell] + 1 && !queued[nb]) {
+        queued[nb] = true;
+        queue[tail++] = nb;
+      }
+    }
+    while (head < tail) {
+      int c = queue[head++];
+      if (hasSupport(c)) {
+        continue;
+      }
+      touch(c);
+      count = neighbors(c);
+      for (int k = 0; k < count; k++) {
+        int nb = neighbor[k];
+        if (!blocked[nb] && dist[nb] == dist[c] + 1 && !queued[nb]) {
+          queued[nb] = true;
+          queue[tail++] = nb;
+        }
+      }
+    }
+    for (int q = 0; q < tail; q++) {
+      queued[queue[q]] = false;
+    }
+
+    /* 2. 골라낸 칸의 거리를 지우고, 골라내지 않은 이웃에서부터 다시 계산한다. */
+    for (int t = 0; t < touchedCount; t++) {
+      dist[touched[t]] = UNREACHABLE;
+    }
+    for (int t = 1; t < touchedCount; t++) {
+      int c = touched[t];
+      count = neighbors(c);
+      for (int k = 0; k < count; k++) {
+        int nb = neighbor[k];
+        if (!blocked[nb] && touchMark[nb] != touchRound && dist[nb] != UNREACHABLE
+            && dist[nb] + 1 < dist[c]) {
+          dist[c] = dist[nb] + 1;
+        }
+      }
+    }
+    head = 0;
+    tail = 0;
+    for (int t = 1; t < touchedCount; t++) {
+      int c = touched[t];
+      if (dist[c] != UNREACHABLE) {
+        tail = enqueue(c, tail);
+      }
+    }
+    relax(head, tail);
+
+    /* 3. 출발 칸에서 목적지로 갈 수 없게 됐으면 되돌린다. */
+    if (dist[spawn] == UNREACHABLE) {
+      blocked[cell] = false;
+      for (int t = 0; t < touchedCount; t++) {
+        dist[touched[t]] = savedDist[t];
+      }
+      return false;
+    }
+
+    updateTouchedNext();
+    return true;
+  }
+
+  /**
+   * 막았던 칸을 다시 연다. 타워를 치울 때 호출한다. 거리가 줄어드는 칸만 다시 계산한다.
+   */
+  public void unblock(int col, int row) {
+    int cell = cellOf(col, row);
+    if (!blocked[cell]) {
+      return;
+    }
+
+    beginTouch();
+    blocked[cell] = false;
+    touch(cell);
+
+    int count = neighbors(cell);
+    for (int k = 0; k < count; k++) {
+      int nb = neighbor[k];
+      if (!blocked[nb] && dist[nb] != UNREACHABLE && dist[nb] + 1 < dist[cell]) {
+        dist[cell] = dist[nb] + 1;
+      }
+    }
+    if (dist[cell] != UNREACHABLE) {
+      relax(0, enqueue(cell, 0));
+    }
+    updateTouchedNext();
+  }
+
+  /**
+   * 큐에 든 칸에서부터 이웃의 거리를 줄일 수 있는 만큼 줄인다. 거리가 바뀐 칸은 touched에 모인다.
+   *
+   * @param head 큐의 시작
+   * @param tail 큐의 끝. 큐는 원형이라 head보다 작을 수 있다.
+   */
+  private void relax(int head, int tail) {
+    int n = queue.length;
+    while (head != tail) {
+      int c = queue[head];
+      head = (head + 1 == n) ? 0 : head + 1;
+      queued[c] = false;
+
+      int count = neighbors(c);
+      for (int k = 0; k < count; k++) {
+        int nb = neighbor[k];
+        if (!blocked[nb] && dist[c] + 1 < dist[nb]) {
+          touch(nb);
+          dist[nb] = dist[c] + 1;
+          if (!queued[nb]) {
+            tail = enqueue(nb, tail);
+          }
+        }
+      }
+    }
+  }
+
+  private int enqueue(int c, int tail) {
+    queued[c] = true;
+    queue[tail] = c;
+    return (tail + 1 == queue.length) ? 0 : tail + 1;
+  }
+
+  /**
+   * @return 칸 c가 거리가 1 작고 아직 골라내지 않은 이웃을 거쳐 목적지로 갈 수 있으면 true
+   */
+  private boolean hasSupport(int c) {
+    int count = neighbors(c);
+    for (int k = 0; k < count; k++) {
+      int nb = neighbor[k];
+      if (!blocked[nb] && touchMark[nb] != touchRound && dist[nb] == dist[c] - 1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void beginTouch() {
+    touchRound++;
+    touchedCount = 0;
+  }
+
+  /**
+   * 거리가 바뀔 칸을 기록해둔다. 원래 거리는 되돌릴 때를 위해 저장한다.
+   */
+  private void touch(int c) {
+    if (touchMark[c] != touchRound) {
+      touchMark[c] = touchRound;
+      savedDist[touchedCount] = dist[c];
+      touched[touchedCount++] = c;
+    }
+  }
+
+  /**
+   * 거리가 바뀐 칸과 그 이웃의 다음 칸을 다시 정한다.
+   */
+  private void updateTouchedNext() {
+    for (int t = 0; t < touchedCount; t++) {
+      int c = touched[t];
+      int col = c % cols;
+      int row = c / cols;
+      // updateNext()가 neighbor 배열을 덮어쓰므로 이웃을 직접 구한다.
+      updateNext(c);
+      if (row > 0)
+        updateNext(c - cols);
+      if (row < rows - 1)
+        updateNext(c + cols);
+      if (col > 0)
+        updateNext(c - 1);
+      if (col < cols - 1)
+        updateNext(c + 1);
+    }
+  }
+
+  /**
+   * 칸 c의 다음 칸을 거리가 가장 작은 이웃으로 정한다. 막힌 칸에 있던 몹도 빠져나갈 수 있도록 막힌 칸도 다음 칸을 갖는다.
+   */
+  private void updateNext(int c) {
+    int best = c;
+    int bestDist = (blocked[c]) ? UNREACHABLE : dist[c];
+    int count = neighbors(c);
+    for (int k = 0; k < count; k++) {
+      int nb = neighbor[k];
+      if (!blocked[nb] && dist[nb] < bestDist) {
+        best = nb;
+        bestDist = dist[nb];
+      }
+    }
+    next[c] = best;
+  }
+
+  /**
+   * 칸 c의 이웃을 neighbor 배열에 채운다.
+   *
+   * @return 이웃의 수
+   */
+  private int neighbors(int c) {
+    int col = c % cols;
+    int row = c / cols;
+    int count = 0;
+    if (row > 0)
+      neighbor[count++] = c - cols;
+    if (row < rows - 1)
+      neighbor[count++] = c + cols;
+    if (col > 0)
+      neighbor[count++] = c - 1;
+    if (col < cols - 1)
+      neighbor[count++] = c + 1;
+    return count;
+  }
+
+  public int cellOf(int col, int row) {
+    return row * cols + col;
+  }
+
+  /**
+   * @return 게임 좌표 (x, y)가 들어있는 칸. 격자 밖이면 가장 가까운 가장자리 칸
+   */
+  public int cellAt(int x, int y) {
+    int col = Fixed.clamp(x / cellWidth, 0, cols - 1);
+    int row = Fixed.clamp(y / cellHeight, 0, rows - 1);
+    return row * cols + col;
+  }
+
+  /**
+   * @return 칸 c에서 목적지로 가려면 다음에 갈 칸. 목적지거나 갈 수 없으면 c
+   */
+  public int nextCell(int c) {
+    return next[c];
+  }
+
+  /**
+   * @return 칸의 정중앙 x 좌표
+   */
+  public int centerX(int c) {
+    return (c % cols) * cellWidth + cellWidth / 2;
+  }
+
+  /**
+   * @return 칸의 정중앙 y 좌표
+   */
+  public int centerY(int c) {
+    return (c / cols) * cellHeight + cellHeight / 2;
+  }
+
+  public boolean isBlocked(int col, int row) {
+    return blocked[cellOf(col, row)];
+  }
+
+  /**
+   * @return 칸에서 목적지까지 가야 하는 칸 수. 갈 수 없으면 UNREACHABLE
+   */
+  public int getDistance(int col, int row) {
+    return getDistance(cellOf(col, row));
+  }
+
+  /**
+   * @return 칸 c에서 목적지까지 가야 하는 칸 수. 갈 수 없으면 UNREACHABLE
+   */
+  public int getDistance(int c) {
+    return dist[c];
+  }
+
+  public int getSpawn() {
+    return spawn;
+  }
+
+  public int getGoal() {
+    return goal;
+  }
+
+  public int getCols() {
+    return cols;
+  }
+
+  public int getRows() {
+    return rows;
+  }
+}
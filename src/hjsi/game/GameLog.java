@@ -0,0 +1,102 @@
+package hjsi.game;
+
+/**
+ * 게임 로직(hjsi.game, hjsi.timer)에서 사용하는 로그 출력 도우미. 게임 로직이 안드로이드에 의존하지 않도록 로그를 실제로 출력하는 방법은
+ * Printer로 바꿔 끼울 수 있다. 기본값은 표준 출력이고, 안드로이드에서는 AppManager가 LogCat으로 출력하는 Printer를 등록한다.
+ */
+public final class GameLog {
+  /*
+   * 로그 수준
+   */
+  public static final int VERBOSE = 2;
+  public static final int DEBUG = 3;
+  public static final int INFO = 4;
+  public static final int ERROR = 6;
+
+  /**
+   * 로그를 실제로 출력하는 방법을 구현한다.
+   */
+  public interface Printer {
+    void print(int level, String tag, String message);
+  }
+
+  /**
+   * 표준 출력으로 로그를 출력한다. 기기 밖(일반 JVM)에서 게임 로직만 돌릴 때 사용된다.
+   */
+  private static final Printer CONSOLE = new Printer() {
+    @Override
+    public void print(int level, String tag, String message) {
+      System.out.println("[" + tag + "] " + message);
+    }
+  };
+
+  private static volatile Printer printer = CONSOLE;
+  /**
+   * 디버그 빌드 여부. 디버그 빌드에서만 하는 검사에 사용한다.
+   */
+  private static volatile boolean debug = false;
+
+  private GameLog() {}
+
+  /**
+   * 로그를 출력할 Printer를 지정한다.
+   *
+   * @param printer null이면 표준 출력을 사용한다.
+   */
+  public static void setPrinter(Printer printer) {
+    GameLog.printer = (printer != null) ? printer : CONSOLE;
+  }
+
+  public static void setDebug(boolean debug) {
+    GameLog.debug = debug;
+  }
+
+  public static boolean isDebug() {
+    return debug;
+  }
+
+  /**
+   * 로그를 출력하려는 개체의 클래스, 메소드 이름을 구한다. AppManager.getClassMethodName()과 같은 방식이다.
+   *
+   * @param deepMore true면 호출한 메소드를 부른 쪽의 이름을 구한다.
+   * @return class.method 형태의 문자열
+   */
+  private static String getClassMethodName(boolean deepMore) {
+    StackTraceElement[] elements = new Throwable().getStackTrace();
+
+    int depth = (deepMore == true ? 3 : 2);
+    if (depth >= elements.length) {
+      return "unknown";
+    }
+    String methodName = elements[depth].getMethodName();
+    String className = elements[depth].getClassName();
+    className = className.substring(className.lastIndexOf(".") + 1);
+
+    return className + "." + methodName;
+  }
+
+  /**
+   * 메소드의 호출 여부를 확인하기 위해 사용한다.
+   */
+  public static void printSimpleLog() {
+    printer.print(VERBOSE, "메소드 호출", getClassMethodName(true) + " --------> " + getClassMethodName(false)
+        + " 호출되었음");
+  }
+
+  /**
+   * 호출한 클래스의 이름과 메소드 이름을 TAG로 하는 로그메시지를 출력한다.
+   *
+   * @param message 로그로 출력할 메시지
+   */
+  public static void printDetailLog(String message) {
+    printer.print(DEBUG, getClassMethodName(false), message);
+  }
+
+  public static void printInfoLog(String message) {
+    printer.print(INFO, getClassMethodName(false), message);
+  }
+
+  public static void printErrorLog(String message) {
+    printer.print(ERROR, getClassMethodName(false), message);
+  }
+}
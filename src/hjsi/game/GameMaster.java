@@ -1,13 +1,43 @@
 package hjsi.game;
 
-import hjsi.common.AppManager;
 import hjsi.timer.TimeManager;
+import hjsi.timer.TimerMetrics;
 import hjsi.timer.TimerRunnable;
 
 /**
- * 게임을 진행시키는 인게임 스레드. 화면에 보이는지나 카메라에 관한 건 전혀 신경 쓸 필요 없다.
+ * 게임을 진행시키는 인게임 스레드. 화면에 보이는지나 카메라에 관한 건 전혀 신경 쓸 필요 없다. 게임 로직(hjsi.game, hjsi.timer)은
+ * 안드로이드에 의존하지 않으므로 일반 JVM에서도 GameMaster(false)로 만들어서 runTicks()로 게임을 진행시킬 수 있다.
  */
 public class GameMaster implements Runnable {
+  /**
+   * 시뮬레이션 한 틱의 길이. 모든 게임 개체의 속도와 대기시간은 이 틱 단위로 표현한다. 단위 ms
+   */
+  public static final int TICK_MS = 10;
+  /**
+   * 1초 동안 진행되는 틱 수
+   */
+  public static final int TICKS_PER_SEC = 1000 / TICK_MS;
+
+  /*
+   * 게임 진행 배속. 값은 실제 시간 1ms 동안 진행되는 시뮬레이션 시간(ms)을 나타낸다.
+   */
+  public static final int SPEED_NORMAL = 1;
+  public static final int SPEED_DOUBLE = 2;
+  public static final int SPEED_QUAD = 4;
+  /**
+   * 실제 시간과 상관없이 CPU가 허락하는 만큼 빠르게 진행하는 배속. 밸런스 확인이나 장시간 테스트용이다.
+   */
+  public static final int SPEED_MAX = 0;
+  /**
+   * SPEED_MAX 배속에서 일시정지나 종료 요청을 확인하기 전에 한 번에 진행하는 틱 수
+   */
+  private static final int MAX_SPEED_BATCH = 100;
+  /**
+   * 한 번 깨어났을 때 밀린 시간을 따라잡기 위해 연달아 진행하는 최대 틱 수. 이보다 많이 밀렸으면 나머지 시간은 버리고 게임이 그만큼 느려진
+   * 것으로 친다. 기기가 느려도 밀린 틱을 다 처리하느라 화면과 입력이 멈추는 일이 없도록 한다.
+   */
+  private static final int MAX_CATCH_UP_TICKS = 10;
+
   /**
    * 게임을 진행시키는 스레드
    */
@@ -15,109 +45,307 @@ public class GameMaster implements Runnable {
   /**
    * GameMaster의 스레드를 완전히 종료하려면 값을 true로 바꾼다.
    */
-  private boolean termination = false;
+  private volatile boolean termination = false;
   /**
    * GameMaster의 스레드를 재생하려면 true로 설정하고, 일시적으로 멈추려면 false로 설정한다.
    */
-  private boolean running = false;
+  private volatile boolean running = false;
+  /**
+   * 일시정지된 스레드를 재우고 깨우기 위한 모니터. running, termination 값을 바꿀 때는 이 모니터에 notify 해준다.
+   */
+  private final Object pauseLock = new Object();
+  /**
+   * 틱을 진행하는 동안 잡고 있는 락. 일시정지 중에 다른 스레드가 게임 상태를 바로 바꿀 때, 끝나가는 틱과 겹치지 않게 한다.
+   */
+  private final Object tickLock = new Object();
+  /**
+   * 현재 게임 진행 배속. SPEED_로 시작하는 상수 중 하나다.
+   */
+  private volatile int speed = SPEED_NORMAL;
+  /**
+   * 1초 동안 처리한 틱 수
+   */
+  private volatile int logicFps;
+  /**
+   * 매 틱의 결과를 그리기 스레드에 넘겨주는 버퍼
+   */
+  private final SnapshotBuffer snapshots = new SnapshotBuffer();
+  /**
+   * 틱의 단계별 소요 시간을 재는 프로파일러
+   */
+  private final TickProfiler profiler = new TickProfiler();
+  /**
+   * 밀린 시간을 다 따라잡지 못해서 시간을 버린 횟수
+   */
+  private volatile int overloadCount = 0;
+  /**
+   * 과부하 때문에 버린 시뮬레이션 시간의 합. 단위 ms
+   */
+  private volatile long droppedTime = 0L;
 
   public GameMaster() {
-    workerThread = new Thread(this);
-    workerThread.start();
+    this(true);
+  }
+
+  /**
+   * @param useThread true면 게임을 진행시키는 스레드를 만들어서 시작한다. false면 스레드 없이 runTicks()를 호출하는 쪽에서 직접 게임을
+   *        진행시킨다.
+   */
+  public GameMaster(boolean useThread) {
+    // 게임을 시작하기 전에도 화면에 초기 상태가 보이도록 한 번 발행해둔다.
+    publishSnapshot();
+
+    if (useThread) {
+      workerThread = new Thread(this);
+      workerThread.start();
+    }
   }
 
   @Override
   public void run() {
     /* fps 계산을 위한 변수 */
     int fpsRealFps = 0;
-    long fpsStartTime;
-    long fpsRealTime; // 프레임당 실제 소요 시간
     long fpsElapsedTime = 0L; // 1초 측정을 위한 변수
 
+    /* 틱 계산을 위한 변수 */
+    long currentTime;
+    long lastTime;
+    long accumulated; // 아직 틱으로 소비하지 못한 시뮬레이션 시간
+    int curSpeed;
+
     while (!termination) {
-      while (running) {
-        // 프레임 시작 시간을 구한다.
-        fpsStartTime = System.currentTimeMillis();
-
-        /*
-         * 대기가 끝난 작업을 수행한다.
-         */
-        TimerRunnable task = TimeManager.nextTask();
-        while (task != null) {
-          task.run();
-          task = TimeManager.nextTask();
+      // 일시정지 중일 땐 playGame()이나 quitGame()이 깨워줄 때까지 스레드를 재운다.
+      synchronized (pauseLock) {
+        while (!running && !termination) {
+          try {
+            pauseLock.wait();
+          } catch (InterruptedException e) {
+            e.printStackTrace();
+          }
         }
+      }
 
-        /*
-         * 게임 로직 실행
-         */
-        for (Unit unit : GameState.getInstance().getUnits()) {
-          unit.action();
-        }
+      // 재생할 때마다 기준 시간을 새로 잡아서 일시정지된 동안의 시간이 틱으로 쌓이지 않게 한다.
+      lastTime = System.currentTimeMillis();
+      accumulated = 0L;
 
-        if (GameState.getInstance().usedMob < 10) {
-          GameState.getInstance().addMob();
-        }
-        // 몹이 다 죽으면 새로운 웨이브 시작 및 정지
-        else if (GameState.getInstance().deadMob == 10) {
-          nextWave();
-          TimeManager.pauseTime();
-          pauseGame();
-          break;
-        }
+      while (running && !termination) {
+        currentTime = System.currentTimeMillis();
+        curSpeed = speed;
+        fpsElapsedTime += currentTime - lastTime;
 
-        for (Mob mob : GameState.getInstance().getMobs()) {
-          // 몹이 죽지 않았고 1바퀴 돌았으면
-          if (mob.lap == 2 && mob.dead == false) {
-            mob.dead = true;
-            GameState.getInstance().curMob--;
-            GameState.getInstance().deadMob++;
-            continue;
+        if (curSpeed == SPEED_MAX) {
+          /*
+           * 실제 시간은 따지지 않고 정해진 묶음만큼 틱을 바로 진행시킨다.
+           */
+          for (int i = 0; i < MAX_SPEED_BATCH && running && !termination; i++) {
+            stepTick();
+            fpsRealFps++;
+          }
+          accumulated = 0L;
+        } else {
+          /*
+           * 경과한 시간에 배속을 곱한 만큼 고정된 길이의 틱을 진행시킨다. 틱 하나의 내용은 배속과 상관없이 같으므로 결과도 같다.
+           */
+          accumulated += (currentTime - lastTime) * curSpeed;
+          int catchUp = 0;
+          while (running && !termination && accumulated >= TICK_MS && catchUp < MAX_CATCH_UP_TICKS) {
+            stepTick();
+            accumulated -= TICK_MS;
+            catchUp++;
+            fpsRealFps++;
           }
 
-          // 몹이 생성되어 있다면 이동
-          else if (mob.created)
-            mob.move();
+          /*
+           * 정해진 틱 수를 진행하고도 밀린 시간이 남았다면 과부하 상태다. 남은 시간을 따라잡으려 하면 그 사이에 또 시간이 밀리므로, 한 틱이
+           * 안 되는 자투리만 남기고 버린다. 버린 만큼 게임이 실제 시간보다 느리게 진행된다.
+           */
+          if (accumulated >= TICK_MS) {
+            long dropped = accumulated - accumulated % TICK_MS;
+            accumulated -= dropped;
+            droppedTime += dropped;
+            overloadCount++;
+          }
         }
+        lastTime = currentTime;
 
-        /*
-         * 몹이 타워 사정거리에 들어오면 일정 시간마다 투사체 생성
-         */
-        GameState.getInstance().tower.attack();
-        /*
-         * 투사체 전체 돌면서 몹을 향해 이동. 맞으면 사라짐
-         */
-        for (Projectile proj : GameState.getInstance().getProjs()) {
-          proj.move();
-          /* 투사체가 몹과 충돌한다면 */
-          if (proj.isHit)
-            GameState.getInstance().projs.remove(proj);
-        }
-        // TODO Auto-generated method stub
-
-        /* 프레임 한 번의 소요 시간을 구해서 fps를 계산한다. */
-        fpsRealFps++;
-        fpsRealTime = (System.currentTimeMillis() - fpsStartTime);
-        fpsElapsedTime += fpsRealTime;
-        if (fpsElapsedTime >= 1000) { // 1초마다 프레임율 갱신
-          AppManager.getInstance().setLogicFps(fpsRealFps);
+        /* 1초마다 초당 처리한 틱 수를 갱신한다. */
+        if (fpsElapsedTime >= 1000) {
+          logicFps = fpsRealFps;
           fpsRealFps = 0;
           fpsElapsedTime = 0L;
         }
+
+        // 다음 틱까지 남은 시간은 기다린다. 도중에 일시정지나 종료 요청이 오면 바로 깨어난다.
+        synchronized (pauseLock) {
+          if (running && !termination && curSpeed != SPEED_MAX) {
+            try {
+              pauseLock.wait(Math.max((TICK_MS - accumulated) / curSpeed, 1L));
+            } catch (InterruptedException e) {
+              e.printStackTrace();
+            }
+          }
+        }
+      }
+    }
+    GameLog.printDetailLog("GameMaster 스레드 종료.");
+  }
+
+  /**
+   * 스레드 없이 호출한 쪽에서 바로 주어진 틱 수만큼 게임을 진행시킨다. 실제 시간은 따지지 않는다. GameMaster(false)로 만든 경우에만
+   * 사용한다.
+   * 
+   * @param count 진행시킬 틱 수
+   * @return 실제로 진행된 틱 수. 도중에 웨이브가 끝나면 count보다 작을 수 있다.
+   */
+  public int runTicks(int count) {
+    running = true;
+    int done = 0;
+    while (done < count && running) {
+      stepTick();
+      done++;
+    }
+    return done;
+  }
+
+  /**
+   * 다른 스레드에서 게임 상태를 바꾸는 작업을 넘긴다. 게임이 진행 중이면 다음 틱의 처음에 수행되고, 일시정지 중이면 진행되는 틱이 없으므로 그
+   * 자리에서 바로 수행하고 바뀐 상태를 스냅샷으로 발행한다.
+   * 
+   * @param task 게임 상태를 바꾸는 작업
+   */
+  public void runTask(TimerRunnable task) {
+    synchronized (tickLock) {
+      if (!running) {
+        task.run();
+        publishSnapshot();
+        return;
+      }
+    }
+    TimeManager.post(task);
+  }
+
+  /**
+   * tickLock을 잡고 한 틱을 진행시킨다.
+   */
+  private void stepTick() {
+    synchronized (tickLock) {
+      updateTick();
+    }
+  }
+
+  /**
+   * 게임 로직을 한 틱만큼 진행시킨다. 게임 개체는 매 틱마다 한 번씩 갱신되므로 스스로 시간을 잴 필요가 없다.
+   */
+  private void updateTick() {
+    long tickStart = profiler.start();
+    long phaseStart = tickStart;
+
+    GameState gameState = GameState.getInstance();
+    gameState.advanceTick();
+    TimeManager.advanceTime(TICK_MS);
+
+    /*
+     * 대기가 끝난 작업과 다른 스레드에서 넘긴 작업을 수행한다.
+     */
+    TimeManager.runTasks();
+    phaseStart = profiler.record(TickProfiler.TIMER, phaseStart);
+
+    /*
+     * 게임 로직 실행
+     */
+    EntityWorld world = gameState.getWorld();
+    world.updateRegen();
+    phaseStart = profiler.record(TickProfiler.ACTION, phaseStart);
+
+    if (gameState.usedMob < 10) {
+      gameState.addMob();
+    }
+    // 몹이 다 죽으면 새로운 웨이브 시작 및 정지
+    else if (gameState.deadMob == 10) {
+      nextWave();
+      TimeManager.pauseTime();
+      pauseGame();
+      publishSnapshot();
+      return;
+    }
+    phaseStart = profiler.record(TickProfiler.SPAWN, phaseStart);
+
+    MobStore mobs = gameState.getMobs();
+    int i = 0;
+    while (i < mobs.getCount()) {
+      // 길을 끝까지 가면 죽는다. 마지막 몹이 이 자리로 옮겨오므로 같은 인덱스를 다시 처리한다.
+      if (mobs.hasArrived(i)) {
+        mobs.remove(i);
+        gameState.curMob--;
+        gameState.deadMob++;
+        continue;
       }
 
-      // 게임이 일시정지 중일 땐 인게임 스레드의 cpu time을 양보시킨다.
-      Thread.yield();
+      mobs.move(i);
+      i++;
+    }
+    gameState.getMobGrid().rebuild(mobs);
+    ProgressIndex progressIndex = gameState.getProgressIndex();
+    if (progressIndex != null) {
+      progressIndex.rebuild(mobs, gameState.getTick());
+    }
+    phaseStart = profiler.record(TickProfiler.MOB, phaseStart);
+
+    /*
+     * 몹이 타워 사정거리에 들어오면 일정 시간마다 투사체 생성
+     */
+    world.updateWeapons(gameState.getTick(), mobs, gameState.getMobGrid(), progressIndex, gameState.getProjs());
+    phaseStart = profiler.record(TickProfiler.ATTACK, phaseStart);
+
+    /*
+     * 투사체 전체 돌면서 몹을 향해 이동. 맞으면 사라짐
+     */
+    ProjectileStore projs = gameState.getProjs();
+    i = 0;
+    while (i < projs.getCount()) {
+      /* 투사체가 몹과 충돌한다면 마지막 투사체가 이 자리로 옮겨오므로 같은 인덱스를 다시 처리한다. */
+      if (projs.move(i, mobs))
+        projs.remove(i);
+      else
+        i++;
     }
-    AppManager.printDetailLog("GameMaster 스레드 종료.");
+    int killed = mobs.takeKilled();
+    gameState.curMob -= killed;
+    gameState.deadMob += killed;
+    phaseStart = profiler.record(TickProfiler.PROJECTILE, phaseStart);
+
+    publishSnapshot();
+    profiler.record(TickProfiler.SNAPSHOT, phaseStart);
+    profiler.endTick(tickStart);
+  }
+
+  /**
+   * 현재 게임 상태를 스냅샷으로 복사해서 그리기 스레드에 넘긴다.
+   */
+  private void publishSnapshot() {
+    GameState.getInstance().writeSnapshot(snapshots.getBack());
+    snapshots.publish();
+  }
+
+  /**
+   * 가장 최근에 진행된 틱의 스냅샷을 가져온다. 그리기 스레드 하나에서만 호출한다.
+   * 
+   * @return 그리기용 스냅샷. 다음 호출 전까지 내용이 바뀌지 않는다.
+   */
+  public RenderSnapshot acquireSnapshot() {
+    return snapshots.acquire();
   }
 
   /**
    * 게임을 종료할 때 호출한다. 게임 진행 스레드를 완전히 종료시킨다.
    */
   public void quitGame() {
-    AppManager.printSimpleLog();
-    termination = true;
+    GameLog.printSimpleLog();
+    synchronized (pauseLock) {
+      termination = true;
+      pauseLock.notifyAll();
+    }
 
     try {
       if (workerThread != null) {
@@ -132,29 +360,99 @@ public class GameMaster implements Runnable {
    * 게임을 시작한다.
    */
   public void playGame() {
-    AppManager.printSimpleLog();
+    GameLog.printSimpleLog();
     /*
      * 일시정지했다가 다시 시작하는건지, 한 웨이브가 끝난 후 새로운 웨이브를 시작하는건지 구별할 필요가 있다. (새로운 정보를 세팅하는 과정이 필요하니까)
      */
-    running = true;
-    // workerThread.interrupt(); // 대기 중인 스레드 바로 깨우기 (되는지 모르겠음)
+    synchronized (pauseLock) {
+      running = true;
+      pauseLock.notifyAll(); // 대기 중인 스레드 바로 깨우기
+    }
   }
 
   /**
    * 게임을 일시정지한다.
    */
   public void pauseGame() {
-    AppManager.printSimpleLog();
-    running = false;
+    GameLog.printSimpleLog();
+    GameLog.printInfoLog(profiler.dump());
+    TimerMetrics timerMetrics = TimeManager.getMetrics();
+    if (timerMetrics != null) {
+      GameLog.printInfoLog(timerMetrics.dump());
+    }
+    if (overloadCount > 0) {
+      GameLog.printInfoLog("overload: " + overloadCount + " times, " + droppedTime + "ms dropped");
+    }
+    synchronized (pauseLock) {
+      running = false;
+      pauseLock.notifyAll();
+    }
+  }
+
+  /**
+   * 게임 진행 배속을 바꾼다. 게임 중에도 바로 적용된다.
+   * 
+   * @param speed SPEED_NORMAL, SPEED_DOUBLE, SPEED_QUAD, SPEED_MAX 중 하나
+   */
+  public void setSpeed(int speed) {
+    GameLog.printDetailLog("배속: " + speed);
+    synchronized (pauseLock) {
+      this.speed = speed;
+      pauseLock.notifyAll(); // 기다리던 시간을 새 배속으로 다시 계산하게 한다.
+    }
+  }
+
+  /**
+   * @return 현재 게임 진행 배속
+   */
+  public int getSpeed() {
+    return speed;
+  }
+
+  /**
+   * @return 틱의 단계별 소요 시간을 재는 프로파일러
+   */
+  public TickProfiler getProfiler() {
+    return profiler;
+  }
+
+  /**
+   * @return 밀린 시간을 다 따라잡지 못해서 시간을 버린 횟수
+   */
+  public int getOverloadCount() {
+    return overloadCount;
+  }
+
+  /**
+   * @return 과부하 때문에 버린 시뮬레이션 시간의 합. 단위 ms
+   */
+  public long getDroppedTime() {
+    return droppedTime;
+  }
+
+  /**
+   * @return 최근 1초 동안 처리한 틱 수
+   */
+  public int getLogicFps() {
+    return logicFps;
+  }
+
+  /**
+   * 밀리초 단위의 시간을 틱 수로 환산한다. 0보다 큰 시간은 최소 1틱이 된다.
+   * 
+   * @param milliSec 환산할 시간. 단위 ms
+   * @return 주어진 시간 동안 진행되는 틱 수
+   */
+  public static int msToTicks(long milliSec) {
+    return (int) ((milliSec + TICK_MS - 1) / TICK_MS);
   }
 
   public void nextWave() {
     GameState gameState = GameState.getInstance();
 
     gameState.destroyMob();
+    gameState.projs.clear(); // 목표한 몹이 모두 사라졌으므로 남은 투사체도 없앤다.
     gameState.wave++;
-    // 새로운 비트맵 추가
-    gameState.makeFace();
     // 새로운 몹 생성
     gameState.createMobs();
     // init(임시)
@@ -1,62 +1,93 @@
 package hjsi.game;
 
-import hjsi.common.AppManager;
 import hjsi.timer.TimeManager;
 import hjsi.timer.TimerRunnable;
 
-import java.io.IOException;
-import java.util.LinkedList;
-
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory.Options;
+import java.util.Arrays;
 
 /**
- * 게임에 필요한 정보를 저장한다.
+ * 게임에 필요한 정보를 저장한다. 게임 로직만 다루므로 그림(비트맵)은 갖고 있지 않다. 개체의 그림은 그리기 쪽에서 그림 이름으로
+ * 찾는다.
  */
 public class GameState {
   private static GameState uniqueInstance;
   /**
    * 아직 자리가 확정되지 않은 배치할 타워를 가리킨다. null이 아니라면 게임 화면이 배치모드로 표시된다.
    */
-  public Tower inHand = null;
+  public volatile Tower inHand = null;
+  /*
+   * 타워를 배치하는 격자. 게임 맵 전체를 TABLE_ROWS x TABLE_COLS 칸으로 나눈다.
+   */
+  public static final int TABLE_ROWS = 8;
+  public static final int TABLE_COLS = 10;
+  public static final int CELL_WIDTH = 384;
+  public static final int CELL_HEIGHT = 270;
   /**
-   * 게임 상에 배치되어 있는 타워를 표로 갖고 있다.
+   * 게임 상에 배치되어 있는 타워를 표로 갖고 있다. 칸마다 타워 개체의 핸들이고, 빈 칸은 HandleTable.NONE이다.
    */
-  private Tower[][] towerTable = new Tower[8][10];
+  private int[][] towerTable = new int[TABLE_ROWS][TABLE_COLS];
+  /**
+   * 타워 격자 위에서 몹이 목적지까지 가는 길. 타워가 놓인 칸은 막혀 있다. 왼쪽 위 칸에서 출발해서 오른쪽 아래 칸에 도착한다.
+   */
+  FlowField field = new FlowField(TABLE_COLS, TABLE_ROWS, CELL_WIDTH, CELL_HEIGHT, 0, TABLE_ROWS * TABLE_COLS - 1);
+  /**
+   * 미로 맵이면 true. 몹이 path 대신 field를 따라 타워를 피해 가고, 타워를 배치할 때 field의 칸을 막는다. 타워를 배치하기 전에
+   * 정해야 한다. 아직 미로 맵이 없으므로 false
+   */
+  public boolean mazeMode = false;
 
   /**
    * 현재 게임이 진행된 시간을 나타낸다.
    */
   private volatile long worldTime = 0L;
+  /**
+   * 시뮬레이션 시계. GameMaster가 한 틱을 진행할 때마다 1씩 증가한다.
+   */
+  private volatile long tick = 0L;
   /**
    * 현재 단계
    */
   public int wave = 1;
   /**
-   * 테스트용 유닛 리스트
+   * 동상, 타워 등 몹과 투사체가 아닌 게임 개체
    */
-  LinkedList<Unit> arTestUnits = new LinkedList<Unit>();
-  LinkedList<Mob> Mobs = new LinkedList<Mob>();
+  EntityWorld world = new EntityWorld();
   /**
-   * 투사체 리스트
+   * 몹이 지나가는 길. 맵 가장자리를 따라 시계 반대 방향으로 한 바퀴 돌아서 출발점으로 돌아온다.
    */
-  public LinkedList<Projectile> projs = new LinkedList<Projectile>();
+  Path path = new Path(new int[] {90, 90, 2340, 2340, 90}, new int[] {90, 1260, 1260, 90, 90});
+  /**
+   * 살아있는 몹
+   */
+  MobStore mobs = new MobStore();
+  /**
+   * 살아있는 몹의 위치별 격자. 매 틱 몹이 이동한 뒤에 다시 만든다.
+   */
+  SpatialGrid mobGrid = new SpatialGrid();
+  /**
+   * 살아있는 몹을 길을 따라 이동한 거리 순서로 늘어놓은 목록. 몹이 길을 따라갈 때만 매 틱 다시 정렬한다.
+   */
+  ProgressIndex progressIndex = new ProgressIndex();
+  /**
+   * 날아가고 있는 투사체
+   */
+  public ProjectileStore projs = new ProjectileStore();
 
-  public Bitmap mImgMob; // 몹 비트맵
-  public long beforeRegen = System.currentTimeMillis(); // 리젠하기 전 시간
-  public long pBeforeRegen = System.currentTimeMillis(); // 리젠하기 전 시간
-  public long regen = 1000; // create mob per 1 sec
+  public long nextRegenTick = 0L; // 다음 몹을 리젠할 틱
+  public int regen = GameMaster.TICKS_PER_SEC; // create mob per 1 sec (단위 틱)
   public int usedMob = 0; // 몹이 실제로 생성된(내부적 카운터 위해)
   public int deadMob = 0; // 죽은 몹
   public int curMob = 0; // 현재 몹
 
-  public Tower tower;
-
 
   public static final int MAX_MOB = 10;
 
   private GameState() {
-    AppManager.printSimpleLog();
+    GameLog.printSimpleLog();
+
+    for (int[] row : towerTable) {
+      Arrays.fill(row, HandleTable.NONE);
+    }
 
     /*
      * 게임 진행 시간 측정을 위한 타이머를 생성해서 등록해둔다.
@@ -65,21 +96,20 @@ public class GameState {
       @Override
       public void run() {
         worldTime++;
-        AppManager.printDetailLog("타이머 체크");
+        GameLog.printDetailLog("타이머 체크");
       }
     };
     TimeManager.registerCallbackTimer(1000, clock, -1).start();
 
     /*
      * 불러온 유저 데이터를 토대로 동상을 생성한다. (유저 데이터의 남아있는 동상의 갯수, 체력, 업그레이드 등을 참조) 생성한 동상은
-     * 유닛 목록에 추가한다.
+     * 게임 개체로 추가한다. 시험용 타워도 하나 배치해둔다.
      */
-    arTestUnits.add(new Statue(500, 300, AppManager.getInstance().getBitmap("statue1")));
-    tower = new Tower(367, 467, AppManager.getInstance().getBitmap("tower1"));
+    world.createStatue(500, 300);
+    placeTower(new Tower(), 1, 1);
   }
 
   public void initState() {
-    makeFace();
     createMobs();
   }
 
@@ -101,6 +131,7 @@ public class GameState {
     synchronized (GameState.class) {
       GameState.uniqueInstance = null;
     }
+    TimeManager.purgeTimers(); // 게임 상태가 가지고 있던 타이머와 쿨타임도 함께 없앤다.
   }
 
   /**
@@ -130,70 +161,160 @@ public class GameState {
   }
 
   /**
-   * 터치로 입력받은 게임 좌표를 통해서 유닛을 가져온다. 만약, 해당 좌표에 여러 유닛이 걸쳐져 있으면 게임 상에 늦게 추가된 순서로
+   * @return 현재까지 진행된 시뮬레이션 틱 수
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * 시뮬레이션 시계를 한 틱 진행시킨다. GameMaster만 호출한다.
+   */
+  void advanceTick() {
+    tick++;
+  }
+
+  /**
+   * 터치로 입력받은 게임 좌표를 통해서 개체를 가져온다. 만약, 해당 좌표에 여러 개체가 걸쳐져 있으면 게임 상에 늦게 추가된 순서로
    * 우선순위가 있다.
    * 
    * @param x 게임 x 좌표
    * @param y 게임 y 좌표
-   * @return 주어진 게임 좌표 위에 유닛이 있다면 해당 유닛, 없으면 null을 반환한다.
+   * @return 주어진 게임 좌표 위에 개체가 있다면 해당 개체의 핸들, 없으면 HandleTable.NONE을 반환한다.
    */
-  public Unit getUnit(int x, int y) {
-    for (Unit unit : arTestUnits) {
-      if ((unit.x < x && x < unit.x + unit.width) && (unit.y < y && y < unit.y + unit.height))
-        return unit;
-    }
-    return null;
+  public int getEntityAt(int x, int y) {
+    return world.findAt(x, y);
   }
 
-  public LinkedList<Unit> getUnits() {
-    return arTestUnits;
+  public EntityWorld getWorld() {
+    return world;
   }
 
-  public void makeFace() {
-    Options option = new Options();
-    option.inSampleSize = 16;
-    String key = "mob" + wave;
+  /**
+   * 현재 웨이브의 몹을 준비한다. 몹은 addMob()으로 한 마리씩 생성된다. 여기서는 10마리까지지만 실제로는 파일입력을 통해서
+   */
+  public void createMobs() {
+    // 웨이브별 능력치는 아직 없으므로 체력 0, 이동속도 1로 고정
+    if (mazeMode)
+      mobs.prepareWave(field, "mob" + wave, MAX_MOB, 0, 1);
+    else
+      mobs.prepareWave(path, "mob" + wave, MAX_MOB, 0, 1);
+  }
 
-    try {
-      mImgMob = AppManager.getInstance().readImageFile("img/mobs/" + key + ".png", option);
-    } catch (IOException e) {
-      e.printStackTrace();
+  /**
+   * 타워를 격자의 빈 칸에 배치한다. 미로 맵에서는 배치하면 그 칸이 막히므로, 몹이 출발 칸에서 목적지로 갈 수 없게 되거나 살아있는 몹이
+   * 갇히게 되는 칸에는 배치할 수 없다. 배치된 타워는 다른 타워와 함께 한 번에 공격한다(EntityWorld.updateWeapons()). 게임을 진행시키는
+   * 스레드에서 호출한다. 다른 스레드에서는 TimeManager.post()로 넘긴다.
+   *
+   * @param tower 배치할 타워의 정보
+   * @return 배치했으면 true. 이미 타워가 있거나 길을 막는 칸이면 false
+   */
+  public boolean placeTower(Tower tower, int col, int row) {
+    if (towerTable[row][col] != HandleTable.NONE || (mazeMode && !field.block(col, row))) {
+      return false;
+    }
+    if (mazeMode && isAnyMobTrapped()) {
+      field.unblock(col, row);
+      return false;
     }
+    // 칸의 가운데 아래에 맞춘다. 타워가 칸보다 높으므로 윗부분은 위 칸에 걸친다.
+    int x = col * CELL_WIDTH + (CELL_WIDTH - Tower.WIDTH) / 2;
+    int y = (row + 1) * CELL_HEIGHT - Tower.HEIGHT;
+    towerTable[row][col] = world.createTower(tower, x, y, (mazeMode) ? null : path);
+    return true;
+  }
 
-    if ((mImgMob.getWidth() != 64) || (mImgMob.getHeight() != 64)) {
-      mImgMob = Bitmap.createScaledBitmap(mImgMob, 64, 64, true);
+  /**
+   * @return 살아있는 몹 중에 지금 있는 칸에서 목적지로 갈 수 없는 몹이 있으면 true
+   */
+  private boolean isAnyMobTrapped() {
+    for (int i = 0; i < mobs.getCount(); i++) {
+      int cell = field.cellAt(mobs.getCntrX(i), mobs.getCntrY(i));
+      if (field.getDistance(cell) == FlowField.UNREACHABLE) {
+        return true;
+      }
     }
+    return false;
+  }
 
-    AppManager.getInstance().addBitmap(key, mImgMob);
+  /**
+   * 격자에 배치된 타워를 치운다. 게임을 진행시키는 스레드에서 호출한다.
+   */
+  public void removeTower(int col, int row) {
+    int e = towerTable[row][col];
+    if (e == HandleTable.NONE) {
+      return;
+    }
+    world.destroy(e);
+    towerTable[row][col] = HandleTable.NONE;
+    if (mazeMode)
+      field.unblock(col, row);
   }
 
-  public void createMobs() {
-    for (int i = 0; i < MAX_MOB; i++)
-      // 여기서는 10마리까지지만 실제로는 파일입력을 통해서
-      Mobs.add(new Mob(90, 90, mImgMob, wave));
+  /**
+   * @return 격자의 칸에 배치된 타워의 핸들. 없으면 HandleTable.NONE
+   */
+  public int getTowerAt(int col, int row) {
+    return towerTable[row][col];
   }
 
   public void addMob() {
-    if (System.currentTimeMillis() - beforeRegen > regen)
-      beforeRegen = System.currentTimeMillis();
-    else
+    if (tick < nextRegenTick)
       return;
+    nextRegenTick = tick + regen;
 
-    Mobs.get(usedMob).created = true;
+    mobs.add(tick);
     usedMob++;
     curMob++;
   }
 
   public void destroyMob() {
-    AppManager.getInstance().recycleBitmap("mob" + wave);
-    Mobs.clear();
+    mobs.clear();
   }
 
-  public LinkedList<Mob> getMobs() {
-    return Mobs;
+  public MobStore getMobs() {
+    return mobs;
   }
 
-  public LinkedList<Projectile> getProjs() {
+  SpatialGrid getMobGrid() {
+    return mobGrid;
+  }
+
+  /**
+   * @return 몹을 길을 따라 이동한 거리 순서로 늘어놓은 목록. 미로 맵이면 null
+   */
+  ProgressIndex getProgressIndex() {
+    return (mazeMode) ? null : progressIndex;
+  }
+
+  public ProjectileStore getProjs() {
     return projs;
   }
+
+  /**
+   * 화면에 그려야 할 현재 상태를 스냅샷에 복사한다. 그리는 순서대로 몹, 타워, 투사체, 동상 순으로 넣는다. 게임을 진행시키는
+   * 스레드에서만 호출한다.
+   * 
+   * @param snapshot 내용을 채울 스냅샷
+   */
+  void writeSnapshot(RenderSnapshot snapshot) {
+    snapshot.begin(tick, worldTime, wave, curMob, deadMob);
+
+    String mobFace = mobs.getFaceName();
+    for (int i = 0; i < mobs.getCount(); i++) {
+      snapshot.add(RenderSnapshot.KIND_MOB, mobs.x[i], mobs.y[i], mobs.prevX[i], mobs.prevY[i], MobStore.WIDTH,
+          MobStore.HEIGHT, 0, 0, mobFace);
+    }
+
+    world.writeSnapshot(snapshot, RenderSnapshot.KIND_TOWER);
+
+    String projFace = projs.getFaceName();
+    for (int i = 0; i < projs.getCount(); i++) {
+      snapshot.add(RenderSnapshot.KIND_PROJECTILE, projs.x[i], projs.y[i], projs.prevX[i], projs.prevY[i],
+          ProjectileStore.WIDTH, ProjectileStore.HEIGHT, 0, 0, projFace);
+    }
+
+    world.writeSnapshot(snapshot, RenderSnapshot.KIND_STATUE);
+    world.writeSnapshot(snapshot, RenderSnapshot.KIND_UNIT);
+  }
 }
@@ -0,0 +1,130 @@
+package hjsi.game;
+
+/**
+ * 저장소(MobStore 등)의 개체를 오래 가리키기 위한 핸들을 발급하고 현재 인덱스로 바꿔준다. 저장소는 개체를 지울 때 빈틈을 메우느라 인덱스를
+ * 바꾸고 칸을 재사용하므로, 다른 개체는 인덱스 대신 핸들을 갖고 있어야 한다.
+ *
+ * 핸들은 핸들 칸의 번호와 세대 번호를 int 하나에 묶은 값이다. 핸들 칸은 개체가 지워질 때 반납되어 다음 개체가 재사용하는데, 반납할 때마다 칸의
+ * 세대 번호가 바뀌므로 지워진 개체의 핸들은 세대 번호가 맞지 않아서 다른 개체를 가리키지 않는다. 핸들을 인덱스로 바꾸는 것은 배열을 두 번
+ * 읽는 O(1) 작업이고, 핸들이 int라서 주고받을 때 메모리를 할당하지 않는다.
+ *
+ * 게임을 진행시키는 스레드에서만 사용한다.
+ */
+public class HandleTable {
+  /**
+   * 아무것도 가리키지 않는 핸들
+   */
+  public static final int NONE = -1;
+
+  private static final int SLOT_BITS = 18;
+  private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+  private static final int GENERATION_MASK = (1 << (31 - SLOT_BITS)) - 1;
+  /**
+   * 발급할 수 있는 최대 핸들 칸 수
+   */
+  public static final int MAX_SLOTS = 1 << SLOT_BITS;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] index; // 핸들 칸별로 가리키는 개체의 현재 인덱스
+  private int[] generation; // 핸들 칸별 현재 세대 번호
+  private int[] nextFree; // 반납된 핸들 칸끼리 연결한 목록
+  private int freeHead = -1;
+  private int slotCount = 0; // 한 번이라도 사용된 핸들 칸의 수
+
+  public HandleTable() {
+    index = new int[INITIAL_CAPACITY];
+    generation = new int[INITIAL_CAPACITY];
+    nextFree = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * 핸들 칸을 미리 마련해둔다. 발급할 핸들이 capacity개 이하라면 발급하는 동안 메모리를 할당하지 않는다.
+   */
+  public void reserve(int capacity) {
+    if (capacity > index.length) {
+      grow(Math.min(capacity, MAX_SLOTS));
+    }
+  }
+
+  /**
+   * 새 핸들을 발급한다.
+   *
+   * @param i 핸들이 가리킬 개체의 현재 인덱스
+   * @return 발급된 핸들
+   */
+  public int allocate(int i) {
+    int slot;
+    if (freeHead != -1) {
+      slot = freeHead;
+      freeHead = nextFree[slot];
+    } else {
+      if (slotCount == MAX_SLOTS) {
+        throw new IllegalStateException("too many handles: " + MAX_SLOTS);
+      }
+      if (slotCount == index.length) {
+        grow(slotCount * 2);
+      }
+      slot = slotCount++;
+    }
+
+    index[slot] = i;
+    return (generation[slot] << SLOT_BITS) | slot;
+  }
+
+  /**
+   * 핸들을 반납한다. 이후로 이 핸들은 resolve()에서 -1이 된다.
+   */
+  public void release(int handle) {
+    int slot = handle & SLOT_MASK;
+    generation[slot] = (generation[slot] + 1) & GENERATION_MASK;
+    index[slot] = -1;
+    nextFree[slot] = freeHead;
+    freeHead = slot;
+  }
+
+  /**
+   * 개체가 다른 인덱스로 옮겨졌을 때 호출한다.
+   *
+   * @param handle 옮겨진 개체의 핸들
+   * @param i 개체의 새 인덱스
+   */
+  public void move(int handle, int i) {
+    index[handle & SLOT_MASK] = i;
+  }
+
+  /**
+   * 핸들이 가리키는 개체의 현재 인덱스를 구한다.
+   *
+   * @return 개체의 인덱스. 이미 지워진 개체거나 NONE이면 -1
+   */
+  public int resolve(int handle) {
+    if (handle < 0) {
+      return -1;
+    }
+    int slot = handle & SLOT_MASK;
+    if (slot >= slotCount || generation[slot] != (handle >>> SLOT_BITS)) {
+      return -1;
+    }
+    return index[slot];
+  }
+
+  /**
+   * @return 핸들의 핸들 칸 번호. 같은 때에 살아있는 핸들끼리는 겹치지 않으므로 배열의 인덱스로 쓸 수 있다.
+   */
+  static int slotOf(int handle) {
+    return handle & SLOT_MASK;
+  }
+
+  private void grow(int capacity) {
+    int[] newIndex = new int[capacity];
+    int[] newGeneration = new int[capacity];
+    int[] newNextFree = new int[capacity];
+    System.arraycopy(index, 0, newIndex, 0, slotCount);
+    System.arraycopy(generation, 0, newGeneration, 0, slotCount);
+    System.arraycopy(nextFree, 0, newNextFree, 0, slotCount);
+    index = newIndex;
+    generation = newGeneration;
+    nextFree = newNextFree;
+  }
+}
@@ -0,0 +1,54 @@
+package hjsi.game;
+
+import hjsi.timer.TimeManager;
+
+/**
+ * 체력 컴포넌트. 체력, 재생량, 방어력은 고정소수점 값(Fixed)이다.
+ */
+class HealthStore extends ComponentStore {
+  int[] hp; // 현재 체력
+  int[] hpMax; // 최대 체력
+  int[] armor; // 방어력
+  int[] regen; // 재생 주기마다 회복하는 체력
+  int[] regenCooldown; // 재생 주기를 재는 쿨타임의 핸들. 재생하지 않으면 -1
+
+  /**
+   * @param regenMs 재생 주기. 단위 ms. 0이면 재생하지 않는다.
+   */
+  void set(int e, int hp, int hpMax, int armor, int regen, long regenMs) {
+    int i = attach(e);
+    this.hp[i] = hp;
+    this.hpMax[i] = hpMax;
+    this.armor[i] = armor;
+    this.regen[i] = regen;
+    regenCooldown[i] = (regenMs > 0) ? TimeManager.registerCooldown(regenMs) : -1;
+  }
+
+  /**
+   * i번째 칸이 빌려 쓰던 쿨타임을 돌려준다. 개체가 없어지기 전에 호출한다.
+   */
+  void release(int i) {
+    if (regenCooldown[i] >= 0) {
+      TimeManager.releaseCooldown(regenCooldown[i]);
+      regenCooldown[i] = -1;
+    }
+  }
+
+  @Override
+  void allocate(int capacity) {
+    hp = grow(hp, capacity);
+    hpMax = grow(hpMax, capacity);
+    armor = grow(armor, capacity);
+    regen = grow(regen, capacity);
+    regenCooldown = grow(regenCooldown, capacity);
+  }
+
+  @Override
+  void copy(int from, int to) {
+    hp[to] = hp[from];
+    hpMax[to] = hpMax[from];
+    armor[to] = armor[from];
+    regen[to] = regen[from];
+    regenCooldown[to] = regenCooldown[from];
+  }
+}
@@ -1,5 +0,0 @@
-package hjsi.game;
-
-public interface Hittable {
-  void hit(int damage);
-}
@@ -0,0 +1,380 @@
+package hjsi.game;
+
+/**
+ * 살아있는 몹을 모아두는 저장소. 몹 하나를 객체 하나로 두지 않고, 속성별 기본형 배열에 같은 인덱스로 나눠 담는다. 살아있는 몹은 항상 배열의 앞쪽
+ * [0, count)에 빈틈없이 모여있으므로, 모든 몹을 도는 작업은 배열을 처음부터 차례대로 읽기만 하고 반복자를 만들지 않는다. 몹이 죽으면 마지막
+ * 몹을 그 자리로 옮겨서 빈틈을 메운다.
+ *
+ * 배열과 핸들 칸은 웨이브가 바뀌어도 버리지 않고 다음 웨이브의 몹이 그대로 재사용한다. 웨이브를 시작할 때 prepareWave()가 지금까지 가장 큰
+ * 웨이브의 몹 수만큼 미리 늘려두므로, 웨이브 도중이나 웨이브 사이에 메모리를 할당하는 일은 더 큰 웨이브가 처음 나올 때뿐이다.
+ *
+ * 몹은 길(Path)을 따라 움직이고, 생성된 틱과 이동속도와 길을 따라 이동한 거리만이 몹의 상태다. 한 틱의 이동은 거리에 이동속도를
+ * 더하는 것이고, 위치는 그 거리로 길에서 바로 계산해서 x, y 등에 적어둔다. 몹이 마지막으로 있던 구간을 기억해두므로 위치를 계산할 때 길을
+ * 처음부터 찾지 않는다. 미로 맵에서는 길 대신 흐름장(FlowField)을 따라 움직인다. 이때는 몹이 있는 칸의 다음 칸을 찾아서 그 칸의 중앙으로
+ * 다가가고, 이동한 거리는 progress에 더한다.
+ *
+ * 몹을 옮기면 인덱스가 바뀌므로, 투사체처럼 몹을 오래 가리켜야 하는 쪽은 인덱스 대신 핸들(HandleTable)을 갖고 있다가 indexOf()로
+ * 현재 인덱스를 찾는다. 죽은 몹의 핸들은 -1이 되므로 칸이 다른 몹에게 재사용되어도 잘못 가리키지 않는다.
+ *
+ * 게임을 진행시키는 스레드에서만 사용한다.
+ */
+public class MobStore {
+  /**
+   * 몹의 크기
+   */
+  public static final int WIDTH = 64;
+  public static final int HEIGHT = 64;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * 살아있는 몹 수
+   */
+  private int count = 0;
+  /**
+   * 몹의 핸들을 발급하고 현재 인덱스로 바꿔준다.
+   */
+  private final HandleTable handles = new HandleTable();
+
+  /*
+   * 몹 정보. 같은 인덱스끼리 한 몹을 나타낸다.
+   */
+  int[] handle;
+  long[] spawnTick; // 생성된 틱
+  int[] moveSpeed; // 한 틱마다 이동하는 픽셀 수
+  int[] progress; // 생성된 뒤로 길을 따라 이동한 거리. 단위 픽셀
+  int[] hp; // 현재 체력 (Fixed)
+  int[] hpMax; // 최대 체력 (Fixed)
+
+  /*
+   * progress로 계산한 위치. 이동할 때마다 다시 계산한다.
+   */
+  int[] segment; // 지금 있는 길의 구간. 흐름장을 따라갈 때는 지금 있는 칸
+  int[] x;
+  int[] y;
+  int[] prevX; // 직전 틱의 위치
+  int[] prevY;
+  int[] cntrX; // 몹의 정중앙
+  int[] cntrY;
+
+  /**
+   * 현재 웨이브의 몹이 지나가는 길. 흐름장을 따라가는 웨이브에서는 null
+   */
+  private Path path;
+  /**
+   * 현재 웨이브의 몹이 따라가는 흐름장. 길을 따라가는 웨이브에서는 null
+   */
+  private FlowField field;
+
+  /**
+   * 현재 웨이브의 몹을 그릴 때 사용할 그림의 이름
+   */
+  private String faceName = "mob1";
+
+  /*
+   * 현재 웨이브의 몹 능력치. 새로 생성하는 몹은 이 값으로 초기화된다.
+   */
+  private int waveHpMax = 0;
+  private int waveMoveSpeed = 1;
+  /**
+   * 마지막으로 takeKilled()를 호출한 뒤에 공격을 받아서 죽은 몹 수
+   */
+  private int killed = 0;
+  /**
+   * 지금까지 가장 큰 웨이브의 몹 수
+   */
+  private int largestWave = 0;
+
+  public MobStore() {
+    allocate(INITIAL_CAPACITY);
+  }
+
+  private void allocate(int capacity) {
+    handle = grow(handle, capacity);
+    moveSpeed = grow(moveSpeed, capacity);
+    progress = grow(progress, capacity);
+    hp = grow(hp, capacity);
+    hpMax = grow(hpMax, capacity);
+    segment = grow(segment, capacity);
+    x = grow(x, capacity);
+    y = grow(y, capacity);
+    prevX = grow(prevX, capacity);
+    prevY = grow(prevY, capacity);
+    cntrX = grow(cntrX, capacity);
+    cntrY = grow(cntrY, capacity);
+
+    long[] newSpawnTick = new long[capacity];
+    if (spawnTick != null) {
+      System.arraycopy(spawnTick, 0, newSpawnTick, 0, count);
+    }
+    spawnTick = newSpawnTick;
+  }
+
+  private int[] grow(int[] old, int capacity) {
+    int[] array = new int[capacity];
+    if (old != null) {
+      System.arraycopy(old, 0, array, 0, count);
+    }
+    return array;
+  }
+
+  /**
+   * 길의 출발점(흐름장이면 출발 칸의 중앙)에 몹을 생성한다. prepareWave()로 길을 정한 뒤에 호출한다.
+   *
+   * @param tick 생성하는 틱
+   * @return 생성된 몹의 핸들
+   */
+  int add(long tick) {
+    if (count == handle.length) {
+      allocate(count * 2);
+    }
+
+    int i = count++;
+    handle[i] = handles.allocate(i);
+
+    spawnTick[i] = tick;
+    moveSpeed[i] = waveMoveSpeed;
+    progress[i] = 0;
+    hp[i] = waveHpMax;
+    hpMax[i] = waveHpMax;
+    if (field != null) {
+      int spawn = field.getSpawn();
+      segment[i] = spawn;
+      setCenter(i, field.centerX(spawn), field.centerY(spawn));
+    } else {
+      segment[i] = 0;
+      locate(i);
+    }
+    prevX[i] = x[i];
+    prevY[i] = y[i];
+
+    return handle[i];
+  }
+
+  /**
+   * i번째 몹을 없애고 마지막 몹을 그 자리로 옮긴다. 몹을 돌면서 지우는 중이라면 같은 인덱스를 다시 처리해야 한다.
+   */
+  void remove(int i) {
+    int last = --count;
+    handles.release(handle[i]);
+
+    if (i != last) {
+      handle[i] = handle[last];
+      spawnTick[i] = spawnTick[last];
+      moveSpeed[i] = moveSpeed[last];
+      progress[i] = progress[last];
+      hp[i] = hp[last];
+      hpMax[i] = hpMax[last];
+      segment[i] = segment[last];
+      x[i] = x[last];
+      y[i] = y[last];
+      prevX[i] = prevX[last];
+      prevY[i] = prevY[last];
+      cntrX[i] = cntrX[last];
+      cntrY[i] = cntrY[last];
+      handles.move(handle[i], i);
+    }
+  }
+
+  /**
+   * 모든 몹을 없앤다. 없앤 몹의 핸들은 모두 -1이 된다. 배열과 핸들 칸은 그대로 남겨두고 다음 웨이브에 재사용한다.
+   */
+  void clear() {
+    for (int i = 0; i < count; i++) {
+      handles.release(handle[i]);
+    }
+    count = 0;
+    killed = 0;
+  }
+
+  /**
+   * 다음 웨이브의 몹을 준비한다. 남아있는 몹을 모두 없애고, 새로 생성할 몹의 길과 능력치를 정하고, 지금까지 가장 큰 웨이브의 몹 수만큼
+   * 배열을 미리 늘려둔다.
+   *
+   * @param path 몹이 지나가는 길
+   * @param faceName 몹을 그릴 때 사용할 그림의 이름
+   * @param mobCount 이번 웨이브에 생성할 몹 수
+   * @param hpMax 몹의 최대 체력
+   * @param moveSpeed 몹의 이동속도. 한 틱마다 이동하는 픽셀 수
+   */
+  void prepareWave(Path path, String faceName, int mobCount, int hpMax, int moveSpeed) {
+    prepareWave(faceName, mobCount, hpMax, moveSpeed);
+    this.path = path;
+  }
+
+  /**
+   * 흐름장을 따라가는 다음 웨이브의 몹을 준비한다.
+   *
+   * @param field 몹이 따라갈 흐름장
+   * @see #prepareWave(Path, String, int, int, int)
+   */
+  void prepareWave(FlowField field, String faceName, int mobCount, int hpMax, int moveSpeed) {
+    prepareWave(faceName, mobCount, hpMax, moveSpeed);
+    this.field = field;
+  }
+
+  private void prepareWave(String faceName, int mobCount, int hpMax, int moveSpeed) {
+    clear();
+    path = null;
+    field = null;
+    this.faceName = faceName;
+    waveHpMax = hpMax;
+    waveMoveSpeed = moveSpeed;
+
+    if (mobCount > largestWave) {
+      largestWave = mobCount;
+      if (largestWave > handle.length) {
+        allocate(largestWave);
+      }
+      handles.reserve(largestWave);
+    }
+  }
+
+  /**
+   * i번째 몹을 한 틱만큼 길을 따라 이동시킨다.
+   */
+  void move(int i) {
+    prevX[i] = x[i];
+    prevY[i] = y[i];
+    if (field != null) {
+      moveOnField(i);
+    } else {
+      progress[i] += moveSpeed[i];
+      locate(i);
+    }
+  }
+
+  /**
+   * i번째 몹을 지금 있는 칸의 다음 칸 중앙을 향해 이동시킨다. x축을 먼저 맞춘 뒤에 y축으로 가므로 칸의 중앙을 잇는 선 위로만 다니고, 막힌
+   * 칸의 모서리를 파고들지 않는다.
+   */
+  private void moveOnField(int i) {
+    int cell = field.cellAt(cntrX[i], cntrY[i]);
+    int target = field.nextCell(cell);
+    int dx = field.centerX(target) - cntrX[i];
+    int dy = field.centerY(target) - cntrY[i];
+    int step = moveSpeed[i];
+
+    if (dx != 0) {
+      step = Math.min(step, Math.abs(dx));
+      setCenter(i, cntrX[i] + ((dx > 0) ? step : -step), cntrY[i]);
+    } else if (dy != 0) {
+      step = Math.min(step, Math.abs(dy));
+      setCenter(i, cntrX[i], cntrY[i] + ((dy > 0) ? step : -step));
+    } else {
+      step = 0;
+    }
+    segment[i] = cell;
+    progress[i] += step;
+  }
+
+  private void setCenter(int i, int centerX, int centerY) {
+    cntrX[i] = centerX;
+    cntrY[i] = centerY;
+    x[i] = centerX - WIDTH / 2;
+    y[i] = centerY - HEIGHT / 2;
+  }
+
+  /**
+   * i번째 몹이 길을 따라 이동한 거리로 위치를 계산한다.
+   */
+  private void locate(int i) {
+    int d = progress[i];
+    int seg = path.segmentAt(d, segment[i]);
+    segment[i] = seg;
+    x[i] = path.getX(seg, d);
+    y[i] = path.getY(seg, d);
+    cntrX[i] = x[i] + WIDTH / 2;
+    cntrY[i] = y[i] + HEIGHT / 2;
+  }
+
+  /**
+   * @return i번째 몹이 길의 도착점을 지났거나 흐름장의 목적지 칸 중앙에 도착했으면 true
+   */
+  boolean hasArrived(int i) {
+    if (field != null) {
+      int goal = field.getGoal();
+      return cntrX[i] == field.centerX(goal) && cntrY[i] == field.centerY(goal);
+    }
+    return progress[i] > path.getLength();
+  }
+
+  /**
+   * i번째 몹이 공격을 받았을 때 호출한다. 체력이 0 이하로 떨어지면 몹을 없애고 마지막 몹을 그 자리로 옮기므로, 다른 몹은 핸들로 다시 찾아야
+   * 한다.
+   *
+   * @param damage 공격력
+   * @return 몹이 죽었으면 true
+   */
+  boolean hit(int i, int damage) {
+    hp[i] = Fixed.sub(hp[i], Fixed.fromInt(damage));
+    if (hp[i] > 0) {
+      return false;
+    }
+    remove(i);
+    killed++;
+    return true;
+  }
+
+  /**
+   * @return 마지막으로 호출한 뒤에 공격을 받아서 죽은 몹 수
+   */
+  int takeKilled() {
+    int n = killed;
+    killed = 0;
+    return n;
+  }
+
+  /**
+   * @return 살아있는 몹 수
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * @param mobHandle 몹의 핸들
+   * @return 몹의 현재 인덱스. 이미 죽었거나 HandleTable.NONE이면 -1
+   */
+  public int indexOf(int mobHandle) {
+    return handles.resolve(mobHandle);
+  }
+
+  /**
+   * @return i번째 몹의 핸들
+   */
+  public int getHandle(int i) {
+    return handle[i];
+  }
+
+  public int getX(int i) {
+    return x[i];
+  }
+
+  public int getY(int i) {
+    return y[i];
+  }
+
+  public int getCntrX(int i) {
+    return cntrX[i];
+  }
+
+  public int getCntrY(int i) {
+    return cntrY[i];
+  }
+
+  public long getSpawnTick(int i) {
+    return spawnTick[i];
+  }
+
+  public int getProgress(int i) {
+    return progress[i];
+  }
+
+  /**
+   * @return 현재 웨이브의 몹을 그릴 때 사용할 그림의 이름
+   */
+  public String getFaceName() {
+    return faceName;
+  }
+}
@@ -0,0 +1,129 @@
+package hjsi.game;
+
+/**
+ * 몹이 지나가는 길. 꺾이는 점을 차례로 이은 꺾은선이고, 점마다 출발점에서 그 점까지 길을 따라 잰 거리를 미리 구해둔다. 몹은 위치 대신
+ * 길을 따라 이동한 거리만 갖고 있으면 되고, 위치는 그 거리가 들어있는 구간에서 바로 계산한다.
+ *
+ * 좌표는 몹의 왼쪽 위 모서리 기준이다. 만들고 나면 바뀌지 않으므로 여러 스레드에서 읽어도 된다.
+ */
+public final class Path {
+  private final int[] pointX;
+  private final int[] pointY;
+  /**
+   * 출발점에서 i번째 점까지의 거리. 단위 픽셀
+   */
+  private final int[] distance;
+
+  /**
+   * @param pointX 꺾이는 점의 좌표. 출발점부터 도착점까지 차례로
+   * @param pointY 꺾이는 점의 좌표
+   */
+  public Path(int[] pointX, int[] pointY) {
+    if (pointX.length != pointY.length || pointX.length < 2) {
+      throw new IllegalArgumentException("path needs at least 2 points: " + pointX.length + ", " + pointY.length);
+    }
+    this.pointX = pointX.clone();
+    this.pointY = pointY.clone();
+    distance = new int[pointX.length];
+    for (int i = 1; i < pointX.length; i++) {
+      distance[i] = distance[i - 1] + Fixed.dist(pointX[i] - pointX[i - 1], pointY[i] - pointY[i - 1]);
+    }
+  }
+
+  /**
+   * @return 출발점에서 도착점까지 길을 따라 잰 거리. 단위 픽셀
+   */
+  public int getLength() {
+    return distance[distance.length - 1];
+  }
+
+  public int getStartX() {
+    return pointX[0];
+  }
+
+  public int getStartY() {
+    return pointY[0];
+  }
+
+  /**
+   * 거리 d가 들어있는 구간을 찾는다. 몹은 앞으로만 가므로 직전에 있던 구간부터 찾으면 대부분 바로 끝난다.
+   *
+   * @param d 출발점에서 잰 거리
+   * @param hint 찾기 시작할 구간. 모르면 0
+   * @return 구간 번호. i번째 구간은 i번째 점에서 i + 1번째 점까지다. 도착점을 넘어가면 마지막 구간
+   */
+  public int segmentAt(int d, int hint) {
+    int last = distance.length - 2;
+    int seg = (hint < 0 || hint > last || d < distance[hint]) ? 0 : hint;
+    while (seg < last && d >= distance[seg + 1]) {
+      seg++;
+    }
+    return seg;
+  }
+
+  /**
+   * @param seg segmentAt()으로 찾은 구간
+   * @param d 출발점에서 잰 거리
+   * @return 거리 d에서의 x 좌표. 도착점을 넘어가면 도착점
+   */
+  public int getX(int seg, int d) {
+    return interpolate(pointX[seg], pointX[seg + 1], seg, d);
+  }
+
+  /**
+   * @param seg segmentAt()으로 찾은 구간
+   * @param d 출발점에서 잰 거리
+   * @return 거리 d에서의 y 좌표. 도착점을 넘어가면 도착점
+   */
+  public int getY(int seg, int d) {
+    return interpolate(pointY[seg], pointY[seg + 1], seg, d);
+  }
+
+  /**
+   * 길 위에서 (cntrX, cntrY)의 사정거리 안에 드는 거리 구간을 구한다. 길의 모든 픽셀 거리에서 몹의 정중앙을 Fixed.inRange()로
+   * 검사하므로, 구간 안의 거리에 있는 몹은 정확히 사정거리 안의 몹이다. 길의 길이만큼 검사하므로 타워를 배치할 때 한 번만 호출한다.
+   *
+   * @param offsetX 길의 좌표에서 몹의 정중앙까지의 거리
+   * @param offsetY 길의 좌표에서 몹의 정중앙까지의 거리
+   * @return 구간의 시작과 끝(둘 다 포함)을 차례로 늘어놓은 배열. 사정거리가 길에 닿지 않으면 길이 0
+   */
+  public int[] coverage(int cntrX, int cntrY, int range, int offsetX, int offsetY) {
+    int[] found = new int[8];
+    int count = 0;
+    int start = -1;
+    int seg = 0;
+    int length = getLength();
+    for (int d = 0; d <= length + 1; d++) {
+      boolean in = false;
+      if (d <= length) {
+        seg = segmentAt(d, seg);
+        in = Fixed.inRange(getX(seg, d) + offsetX - cntrX, getY(seg, d) + offsetY - cntrY, range);
+      }
+      if (in && start < 0) {
+        start = d;
+      } else if (!in && start >= 0) {
+        if (count + 2 > found.length) {
+          int[] bigger = new int[found.length * 2];
+          System.arraycopy(found, 0, bigger, 0, count);
+          found = bigger;
+        }
+        found[count++] = start;
+        found[count++] = d - 1;
+        start = -1;
+      }
+    }
+
+    int[] intervals = new int[count];
+    System.arraycopy(found, 0, intervals, 0, count);
+    return intervals;
+  }
+
+  private int interpolate(int from, int to, int seg, int d) {
+    int length = distance[seg + 1] - distance[seg];
+    if (length == 0) {
+      return to;
+    }
+    int along = Fixed.clamp(d - distance[seg], 0, length);
+    return from + (int) ((long) (to - from) * along / length);
+  }
+}
@@ -0,0 +1,47 @@
+package hjsi.game;
+
+/**
+ * 위치 컴포넌트. 게임 맵 위에 자리를 차지하는 개체에 붙는다.
+ */
+class PositionStore extends ComponentStore {
+  int[] x;
+  int[] y;
+  int[] prevX; // 직전 틱의 위치
+  int[] prevY;
+  int[] cntrX; // 개체의 정중앙
+  int[] cntrY;
+
+  /**
+   * @param width 개체의 크기. 정중앙을 구하는 데 쓴다.
+   * @param height 개체의 크기
+   */
+  void set(int e, int x, int y, int width, int height) {
+    int i = attach(e);
+    this.x[i] = x;
+    this.y[i] = y;
+    prevX[i] = x;
+    prevY[i] = y;
+    cntrX[i] = x + width / 2;
+    cntrY[i] = y + height / 2;
+  }
+
+  @Override
+  void allocate(int capacity) {
+    x = grow(x, capacity);
+    y = grow(y, capacity);
+    prevX = grow(prevX, capacity);
+    prevY = grow(prevY, capacity);
+    cntrX = grow(cntrX, capacity);
+    cntrY = grow(cntrY, capacity);
+  }
+
+  @Override
+  void copy(int from, int to) {
+    x[to] = x[from];
+    y[to] = y[from];
+    prevX[to] = prevX[from];
+    prevY[to] = prevY[from];
+    cntrX[to] = cntrX[from];
+    cntrY[to] = cntrY[from];
+  }
+}
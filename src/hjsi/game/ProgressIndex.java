@@ -0,0 +1,111 @@
+package hjsi.game;
+
+/**
+ * 살아있는 몹을 길을 따라 이동한 거리(progress) 순서로 늘어놓은 목록. 타워가 닿는 범위를 길 위의 거리 구간으로 미리 구해두면, 그 구간에
+ * 있는 몹은 이 목록에서 이진 탐색으로 바로 찾을 수 있다. 몹이 길(Path)을 따라갈 때만 쓴다.
+ *
+ * 매 틱 몹이 모두 이동한 뒤에 rebuild()로 다시 정렬한다. 직전 틱의 순서에서 시작하므로 몹끼리 추월하는 일이 드물면 거의 정렬된 상태라서
+ * 삽입 정렬이 O(n)에 끝난다. 몹 수가 지금까지보다 많아질 때만 배열을 늘린다.
+ *
+ * 게임을 진행시키는 스레드에서만 사용한다.
+ */
+class ProgressIndex {
+  private int count = 0;
+  /**
+   * 거리 순서로 늘어놓은 몹의 핸들. 다음 틱에 순서를 이어받는 데 쓴다.
+   */
+  private int[] handle = new int[16];
+  /**
+   * 거리 순서로 늘어놓은 몹의 인덱스 (MobStore). rebuild() 후 몹이 지워지기 전까지만 맞다.
+   */
+  private int[] mob = new int[16];
+  /**
+   * mob과 같은 순서의 거리. 이진 탐색용
+   */
+  private int[] progress = new int[16];
+  /**
+   * 마지막으로 rebuild()한 틱. 그 뒤에 생성된 몹을 찾는 데 쓴다.
+   */
+  private long lastTick = -1L;
+
+  /**
+   * 몹의 현재 거리로 목록을 다시 정렬한다. 몹이 이동하거나 지워져서 인덱스가 바뀐 뒤에 호출한다.
+   *
+   * @param tick 현재 틱
+   */
+  void rebuild(MobStore mobs, long tick) {
+    int total = mobs.getCount();
+    if (total > mob.length) {
+      int capacity = Math.max(total, mob.length * 2);
+      handle = grow(handle, capacity);
+      mob = new int[capacity];
+      progress = new int[capacity];
+    }
+
+    /* 직전 틱의 순서에서 살아있는 몹만 남기고, 그 뒤에 생성된 몹을 붙인다. */
+    int n = 0;
+    for (int k = 0; k < count; k++) {
+      int i = mobs.indexOf(handle[k]);
+      if (i >= 0) {
+        mob[n++] = i;
+      }
+    }
+    for (int i = 0; i < total && n < total; i++) {
+      if (mobs.spawnTick[i] > lastTick) {
+        mob[n++] = i;
+      }
+    }
+    /* 웨이브가 바뀌는 등으로 이어받지 못한 몹이 있으면 처음부터 늘어놓는다. */
+    if (n != total) {
+      for (int i = 0; i < total; i++) {
+        mob[i] = i;
+      }
+      n = total;
+    }
+
+    /* 삽입 정렬 */
+    for (int k = 0; k < n; k++) {
+      int i = mob[k];
+      int d = mobs.progress[i];
+      int j = k - 1;
+      while (j >= 0 && progress[j] > d) {
+        mob[j + 1] = mob[j];
+        progress[j + 1] = progress[j];
+        j--;
+      }
+      mob[j + 1] = i;
+      progress[j + 1] = d;
+    }
+    for (int k = 0; k < n; k++) {
+      handle[k] = mobs.handle[mob[k]];
+    }
+    count = n;
+    lastTick = tick;
+  }
+
+  /**
+   * 길 위의 구간 [from, to]에 있는 몹 중에 가장 멀리 간 몹을 찾는다.
+   *
+   * @return 몹의 인덱스 (MobStore). 없으면 -1
+   */
+  int findLast(int from, int to) {
+    // progress[k] <= to 인 가장 큰 k
+    int lo = 0;
+    int hi = count;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (progress[mid] <= to)
+        lo = mid + 1;
+      else
+        hi = mid;
+    }
+    int k = lo - 1;
+    return (k >= 0 && progress[k] >= from) ? mob[k] : -1;
+  }
+
+  private int[] grow(int[] old, int capacity) {
+    int[] array = new int[capacity];
+    System.arraycopy(old, 0, array, 0, count);
+    return array;
+  }
+}
@@ -0,0 +1,255 @@
+package hjsi.game;
+
+/**
+ * 날아가고 있는 투사체를 모아두는 저장소. MobStore처럼 투사체를 속성별 기본형 배열에 나눠 담고, 살아있는 투사체는 배열의 앞쪽 [0, count)에
+ * 빈틈없이 모여있다. 투사체가 사라지면 마지막 투사체를 그 자리로 옮긴다. 배열의 크기는 처음에 정해지므로, 가득 차지 않는 한 투사체를 쏘고
+ * 없애는 데 메모리를 할당하지 않는다. 가득 찼을 때 어떻게 할지는 overflow 정책으로 정한다.
+ *
+ * 게임을 진행시키는 스레드에서만 사용한다.
+ */
+public class ProjectileStore {
+  /**
+   * 투사체의 크기
+   */
+  public static final int WIDTH = 21;
+  public static final int HEIGHT = 21;
+
+  /*
+   * 가득 찼을 때의 정책
+   */
+  public static final int OVERFLOW_DROP = 0; // 새로 쏘는 투사체를 버린다.
+  public static final int OVERFLOW_REPLACE_OLDEST = 1; // 가장 오래된 투사체를 없애고 그 자리에 쏜다.
+  public static final int OVERFLOW_GROW = 2; // 배열을 두 배로 늘린다. 메모리를 할당한다.
+
+  /**
+   * 기본 크기
+   */
+  public static final int DEFAULT_CAPACITY = 256;
+
+  private static final String FACE_NAME = "proj1";
+
+  private int count = 0;
+  private int overflow;
+  /**
+   * 다음에 쏠 투사체의 순번. 가장 오래된 투사체를 찾을 때 쓴다.
+   */
+  private int nextSerial = 0;
+  /**
+   * 가득 차서 정책을 적용한 횟수
+   */
+  private int overflowCount = 0;
+
+  /*
+   * 투사체 정보. 같은 인덱스끼리 한 투사체를 나타낸다.
+   */
+  int[] x;
+  int[] y;
+  int[] prevX; // 직전 틱의 위치
+  int[] prevY;
+  int[] target; // 목표로 한 몹의 핸들 (MobStore)
+  int[] damage; // 타워의 공격 데미지
+  int[] moveSpeed; // 한 틱마다 이동하는 픽셀 수
+  int[] serial; // 쏜 순번
+
+  public ProjectileStore() {
+    this(DEFAULT_CAPACITY, OVERFLOW_REPLACE_OLDEST);
+  }
+
+  /**
+   * @param capacity 담을 수 있는 투사체 수. 1 이상이어야 한다.
+   * @param overflow 가득 찼을 때의 정책. OVERFLOW_로 시작하는 상수 중 하나
+   */
+  public ProjectileStore(int capacity, int overflow) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+    }
+    this.overflow = overflow;
+    allocate(capacity);
+  }
+
+  private void allocate(int capacity) {
+    x = grow(x, capacity);
+    y = grow(y, capacity);
+    prevX = grow(prevX, capacity);
+    prevY = grow(prevY, capacity);
+    target = grow(target, capacity);
+    damage = grow(damage, capacity);
+    moveSpeed = grow(moveSpeed, capacity);
+    serial = grow(serial, capacity);
+  }
+
+  private int[] grow(int[] old, int capacity) {
+    int[] array = new int[capacity];
+    if (old != null) {
+      System.arraycopy(old, 0, array, 0, count);
+    }
+    return array;
+  }
+
+  /**
+   * 투사체를 쏜다.
+   *
+   * @param x 쏘는 위치
+   * @param y 쏘는 위치
+   * @param damage 타워의 공격 데미지
+   * @param target 목표로 한 몹의 핸들
+   * @return 쏘았으면 true, 가득 차서 버렸으면 false
+   */
+  boolean fire(int x, int y, int damage, int target) {
+    if (count == this.x.length) {
+      overflowCount++;
+      switch (overflow) {
+        case OVERFLOW_REPLACE_OLDEST:
+          remove(findOldest());
+          break;
+        case OVERFLOW_GROW:
+          allocate(count * 2);
+          break;
+        default:
+          return false;
+      }
+    }
+
+    int i = count++;
+    this.x[i] = x;
+    this.y[i] = y;
+    prevX[i] = x;
+    prevY[i] = y;
+    this.target[i] = target;
+    this.damage[i] = damage;
+    moveSpeed[i] = 2;
+    serial[i] = nextSerial++;
+    return true;
+  }
+
+  /**
+   * @return 가장 먼저 쏜 투사체의 인덱스
+   */
+  private int findOldest() {
+    int oldest = 0;
+    for (int i = 1; i < count; i++) {
+      // 순번이 한 바퀴 넘어가도 차이로 비교하면 올바르다.
+      if (serial[i] - serial[oldest] < 0) {
+        oldest = i;
+      }
+    }
+    return oldest;
+  }
+
+  /**
+   * i번째 투사체를 없애고 마지막 투사체를 그 자리로 옮긴다. 투사체를 돌면서 지우는 중이라면 같은 인덱스를 다시 처리해야 한다.
+   */
+  void remove(int i) {
+    int last = --count;
+    if (i != last) {
+      x[i] = x[last];
+      y[i] = y[last];
+      prevX[i] = prevX[last];
+      prevY[i] = prevY[last];
+      target[i] = target[last];
+      damage[i] = damage[last];
+      moveSpeed[i] = moveSpeed[last];
+      serial[i] = serial[last];
+    }
+  }
+
+  /**
+   * 모든 투사체를 없앤다.
+   */
+  void clear() {
+    count = 0;
+  }
+
+  /**
+   * i번째 투사체를 목표한 몹을 향해 한 틱만큼 이동시킨다.
+   *
+   * @param mobs 살아있는 몹
+   * @return 몹과 충돌했거나 목표한 몹이 이미 죽어서 투사체가 사라져야 하면 true
+   */
+  boolean move(int i, MobStore mobs) {
+    prevX[i] = x[i];
+    prevY[i] = y[i];
+
+    int mob = mobs.indexOf(target[i]);
+    /* 목표한 몹이 이미 죽었으면 투사체도 사라진다. */
+    if (mob < 0) {
+      return true;
+    }
+    int targetCntrX = mobs.cntrX[mob];
+    int targetCntrY = mobs.cntrY[mob];
+    int speed = moveSpeed[i];
+    boolean isHit = false;
+
+    /* 충돌검사 */
+    if ((x[i] >= mobs.x[mob] && x[i] <= mobs.x[mob] + MobStore.WIDTH) && y[i] >= mobs.y[mob]
+        && y[i] <= mobs.y[mob] + MobStore.HEIGHT) {
+      isHit = true;
+      mobs.hit(mob, damage[i]);
+    }
+
+    /* 유도 알고리즘 */
+    if (targetCntrX < x[i]) {
+      x[i] -= speed;
+      if (targetCntrY < y[i])
+        y[i] -= speed;
+      else if (targetCntrY > y[i])
+        y[i] += speed;
+    }
+    if (targetCntrX > x[i]) {
+      x[i] += speed;
+      if (targetCntrY < y[i])
+        y[i] -= speed;
+      else if (targetCntrY > y[i])
+        y[i] += speed;
+    }
+    if (targetCntrX == x[i]) {
+      if (targetCntrY < y[i])
+        y[i] -= speed;
+      else if (targetCntrY > y[i])
+        y[i] += speed;
+    }
+
+    return isHit;
+  }
+
+  /**
+   * @return 날아가고 있는 투사체 수
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * @return 담을 수 있는 투사체 수
+   */
+  public int getCapacity() {
+    return x.length;
+  }
+
+  /**
+   * 가득 찼을 때의 정책을 바꾼다.
+   *
+   * @param overflow OVERFLOW_DROP, OVERFLOW_REPLACE_OLDEST, OVERFLOW_GROW 중 하나
+   */
+  public void setOverflow(int overflow) {
+    this.overflow = overflow;
+  }
+
+  public int getOverflow() {
+    return overflow;
+  }
+
+  /**
+   * @return 가득 차서 정책을 적용한 횟수
+   */
+  public int getOverflowCount() {
+    return overflowCount;
+  }
+
+  /**
+   * @return 투사체를 그릴 때 사용할 그림의 이름
+   */
+  public String getFaceName() {
+    return FACE_NAME;
+  }
+}
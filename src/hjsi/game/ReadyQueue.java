@@ -0,0 +1,103 @@
+package hjsi.game;
+
+/**
+ * 무기를 다음에 공격할 수 있는 틱 순서로 꺼내는 우선순위 큐(이진 힙). 공격 단계는 이번 틱에 공격할 수 있는 무기만 꺼내서 처리하므로,
+ * 쿨타임 중인 무기는 건드리지 않는다.
+ *
+ * 무기는 개체의 핸들로 넣는다. 무기가 없어지거나 다음 틱이 바뀌어도 큐에서 찾아 지우지 않고, 꺼낼 때 WeaponStore의 값과 비교해서
+ * 맞지 않으면 버린다. 배열은 가득 찰 때만 늘린다.
+ *
+ * 게임을 진행시키는 스레드에서만 사용한다.
+ */
+class ReadyQueue {
+  private int count = 0;
+  private long[] tick = new long[16];
+  private int[] entity = new int[16];
+
+  /**
+   * @param readyTick 무기가 공격할 수 있게 되는 틱
+   * @param e 무기가 붙은 개체의 핸들
+   */
+  void push(long readyTick, int e) {
+    if (count == tick.length) {
+      long[] newTick = new long[count * 2];
+      int[] newEntity = new int[count * 2];
+      System.arraycopy(tick, 0, newTick, 0, count);
+      System.arraycopy(entity, 0, newEntity, 0, count);
+      tick = newTick;
+      entity = newEntity;
+    }
+
+    // 위로 올리기
+    int i = count++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (tick[parent] <= readyTick) {
+        break;
+      }
+      tick[i] = tick[parent];
+      entity[i] = entity[parent];
+      i = parent;
+    }
+    tick[i] = readyTick;
+    entity[i] = e;
+  }
+
+  boolean isEmpty() {
+    return count == 0;
+  }
+
+  /**
+   * @return 가장 먼저 공격할 수 있는 무기의 틱. 큐가 비어있으면 Long.MAX_VALUE
+   */
+  long peekTick() {
+    return (count == 0) ? Long.MAX_VALUE : tick[0];
+  }
+
+  /**
+   * 가장 먼저 공격할 수 있는 무기를 꺼낸다. 꺼낸 무기의 틱은 꺼내기 전에 peekTick()으로 읽는다.
+   *
+   * @return 무기가 붙은 개체의 핸들
+   */
+  int pop() {
+    int top = entity[0];
+    int last = --count;
+    long lastTick = tick[last];
+    int lastEntity = entity[last];
+
+    // 마지막 원소를 맨 위에서부터 내리기
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= last) {
+        break;
+      }
+      if (child + 1 < last && tick[child + 1] < tick[child]) {
+        child++;
+      }
+      if (lastTick <= tick[child]) {
+        break;
+      }
+      tick[i] = tick[child];
+      entity[i] = entity[child];
+      i = child;
+    }
+    tick[i] = lastTick;
+    entity[i] = lastEntity;
+    return top;
+  }
+
+  /**
+   * @return 큐에 들어있는 무기 수. 없어졌지만 아직 꺼내지 않은 무기도 센다.
+   */
+  int size() {
+    return count;
+  }
+
+  /**
+   * 모든 무기를 꺼낸다.
+   */
+  void clear() {
+    count = 0;
+  }
+}
@@ -0,0 +1,211 @@
+package hjsi.game;
+
+/**
+ * 한 틱이 끝난 시점에 화면에 그려야 할 게임 상태를 복사해둔 것. GameMaster가 매 틱마다 채워서 SnapshotBuffer로 넘기면, 그리기
+ * 스레드는 게임 상태를 직접 보지 않고 이 복사본만 보고 그린다. 배열은 필요할 때만 늘어나고 재사용되므로 평소에는 메모리를 할당하지 않는다.
+ */
+public class RenderSnapshot {
+  /*
+   * 그릴 대상의 종류
+   */
+  public static final int KIND_UNIT = 0;
+  public static final int KIND_MOB = 1;
+  public static final int KIND_TOWER = 2;
+  public static final int KIND_PROJECTILE = 3;
+  public static final int KIND_STATUE = 4;
+
+  private static final int INITIAL_CAPACITY = 32;
+
+  /*
+   * 화면 정보 출력용 게임 상태
+   */
+  private long tick;
+  /**
+   * 스냅샷이 발행된 시간. 틱 사이의 위치를 보간할 때 기준이 된다. 단위 ns (System.nanoTime())
+   */
+  private long publishTime;
+  private long worldTime;
+  private int wave;
+  private int curMob;
+  private int deadMob;
+
+  /*
+   * 그릴 대상 목록. 같은 인덱스끼리 한 대상을 나타낸다.
+   */
+  private int count;
+  private int[] kind;
+  private int[] x;
+  private int[] y;
+  private int[] prevX; // 직전 틱의 위치
+  private int[] prevY;
+  private int[] width;
+  private int[] height;
+  /**
+   * 종류별 추가 정보. 타워는 사정거리, 동상은 현재 체력
+   */
+  private int[] value;
+  /**
+   * 종류별 추가 정보. 동상은 최대 체력
+   */
+  private int[] valueMax;
+  private String[] face;
+
+  RenderSnapshot() {
+    allocate(INITIAL_CAPACITY);
+  }
+
+  private void allocate(int capacity) {
+    kind = grow(kind, capacity);
+    x = grow(x, capacity);
+    y = grow(y, capacity);
+    prevX = grow(prevX, capacity);
+    prevY = grow(prevY, capacity);
+    width = grow(width, capacity);
+    height = grow(height, capacity);
+    value = grow(value, capacity);
+    valueMax = grow(valueMax, capacity);
+
+    String[] newFace = new String[capacity];
+    if (face != null) {
+      System.arraycopy(face, 0, newFace, 0, count);
+    }
+    face = newFace;
+  }
+
+  private int[] grow(int[] old, int capacity) {
+    int[] array = new int[capacity];
+    if (old != null) {
+      System.arraycopy(old, 0, array, 0, count);
+    }
+    return array;
+  }
+
+  /**
+   * 새로운 틱의 내용을 채우기 위해 이전 내용을 비운다.
+   */
+  void begin(long tick, long worldTime, int wave, int curMob, int deadMob) {
+    this.tick = tick;
+    this.worldTime = worldTime;
+    this.wave = wave;
+    this.curMob = curMob;
+    this.deadMob = deadMob;
+    count = 0;
+  }
+
+  /**
+   * 그릴 대상을 추가한다.
+   *
+   * @param kind KIND_로 시작하는 상수 중 하나
+   * @param value 종류별 추가 정보
+   * @param valueMax 종류별 추가 정보
+   * @param face 그릴 때 사용할 그림의 이름
+   */
+  void add(int kind, int x, int y, int prevX, int prevY, int width, int height, int value, int valueMax, String face) {
+    if (count == this.kind.length) {
+      allocate(count * 2);
+    }
+
+    this.kind[count] = kind;
+    this.x[count] = x;
+    this.y[count] = y;
+    this.prevX[count] = prevX;
+    this.prevY[count] = prevY;
+    this.width[count] = width;
+    this.height[count] = height;
+    this.value[count] = value;
+    this.valueMax[count] = valueMax;
+    this.face[count] = face;
+    count++;
+  }
+
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * 발행된 시간을 기록한다. SnapshotBuffer가 발행할 때 호출한다.
+   */
+  void setPublishTime(long publishTime) {
+    this.publishTime = publishTime;
+  }
+
+  /**
+   * @return 스냅샷이 발행된 시간. 단위 ns (System.nanoTime())
+   */
+  public long getPublishTime() {
+    return publishTime;
+  }
+
+  public long getWorldTime() {
+    return worldTime;
+  }
+
+  public int getWave() {
+    return wave;
+  }
+
+  public int getCurMob() {
+    return curMob;
+  }
+
+  public int getDeadMob() {
+    return deadMob;
+  }
+
+  /**
+   * @return 그릴 대상의 수
+   */
+  public int getCount() {
+    return count;
+  }
+
+  public int getKind(int i) {
+    return kind[i];
+  }
+
+  public int getX(int i) {
+    return x[i];
+  }
+
+  public int getY(int i) {
+    return y[i];
+  }
+
+  /**
+   * 직전 틱과 이번 틱 사이의 x 좌표를 구한다.
+   *
+   * @param alpha 0이면 직전 틱, 1이면 이번 틱의 위치
+   */
+  public float getX(int i, float alpha) {
+    return prevX[i] + (x[i] - prevX[i]) * alpha;
+  }
+
+  /**
+   * 직전 틱과 이번 틱 사이의 y 좌표를 구한다.
+   *
+   * @param alpha 0이면 직전 틱, 1이면 이번 틱의 위치
+   */
+  public float getY(int i, float alpha) {
+    return prevY[i] + (y[i] - prevY[i]) * alpha;
+  }
+
+  public int getWidth(int i) {
+    return width[i];
+  }
+
+  public int getHeight(int i) {
+    return height[i];
+  }
+
+  public int getValue(int i) {
+    return value[i];
+  }
+
+  public int getValueMax(int i) {
+    return valueMax[i];
+  }
+
+  public String getFace(int i) {
+    return face[i];
+  }
+}
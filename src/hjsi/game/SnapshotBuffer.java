@@ -0,0 +1,60 @@
+package hjsi.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GameMaster(쓰는 쪽)와 GameSurface(읽는 쪽) 사이에서 RenderSnapshot을 주고받는 3중 버퍼. 쓰는 쪽과 읽는 쪽이 각자 버퍼를 하나씩
+ * 갖고, 나머지 하나를 원자적으로 맞바꾸기만 하므로 락이 없고 어느 쪽도 상대를 기다리지 않는다. 읽는 쪽이 느리면 중간에 발행된 스냅샷은
+ * 건너뛰고 항상 가장 최근 것을 가져간다.
+ */
+public class SnapshotBuffer {
+  /**
+   * middle 값에서 버퍼 인덱스를 꺼내기 위한 마스크
+   */
+  private static final int INDEX_MASK = 3;
+  /**
+   * middle에 아직 읽지 않은 새 스냅샷이 있음을 나타내는 비트
+   */
+  private static final int FRESH = 4;
+
+  private final RenderSnapshot[] buffers = {new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()};
+
+  /**
+   * 쓰는 쪽만 사용하는 버퍼 인덱스
+   */
+  private int back = 0;
+  /**
+   * 읽는 쪽만 사용하는 버퍼 인덱스
+   */
+  private int front = 1;
+  /**
+   * 두 스레드가 맞바꾸는 버퍼 인덱스와 FRESH 비트
+   */
+  private final AtomicInteger middle = new AtomicInteger(2);
+
+  /**
+   * 쓰는 쪽에서 이번에 채울 스냅샷을 가져온다. publish()를 호출하기 전까지는 쓰는 쪽만 접근한다.
+   */
+  RenderSnapshot getBack() {
+    return buffers[back];
+  }
+
+  /**
+   * 다 채운 스냅샷을 읽는 쪽에 넘기고, 다음에 채울 버퍼를 받는다.
+   */
+  void publish() {
+    buffers[back].setPublishTime(System.nanoTime());
+    back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+  }
+
+  /**
+   * 읽는 쪽에서 가장 최근에 발행된 스냅샷을 가져온다. 새로 발행된 것이 없으면 이전에 가져온 스냅샷을 그대로 반환한다. 반환된 스냅샷은
+   * 다음 acquire()를 호출하기 전까지 바뀌지 않는다. 한 스레드(GameSurface의 그리기 스레드)에서만 호출해야 한다.
+   */
+  public RenderSnapshot acquire() {
+    if ((middle.get() & FRESH) != 0) {
+      front = middle.getAndSet(front) & INDEX_MASK;
+    }
+    return buffers[front];
+  }
+}
@@ -0,0 +1,124 @@
+package hjsi.game;
+
+/**
+ * 몹을 게임 맵 위의 같은 크기 칸으로 나눠 담는 격자. 매 틱 몹이 모두 이동한 뒤에 rebuild()로 다시 만들고, 사정거리 검사는 사정거리에
+ * 걸치는 칸에 들어있는 몹만 본다. 타워 수 x 전체 몹 수만큼 하던 거리 계산이 타워 수 x 주변 몹 수로 줄어든다.
+ *
+ * 칸별 몹 목록은 칸 번호 순서로 한 배열에 이어 붙여 두고 칸마다 시작 위치만 기록한다(계수 정렬). 몹 수가 지금까지보다 많아질 때만 배열을
+ * 늘리므로 평소에는 메모리를 할당하지 않는다. 맵 밖에 있는 몹은 가장 가까운 가장자리 칸에 넣는다.
+ *
+ * 게임을 진행시키는 스레드에서만 사용한다.
+ */
+class SpatialGrid {
+  /**
+   * 게임 맵의 크기
+   */
+  static final int WORLD_WIDTH = 3840;
+  static final int WORLD_HEIGHT = 2160;
+
+  /**
+   * 칸 한 변의 길이. 2의 거듭제곱이라서 나눗셈 대신 시프트로 칸을 구한다.
+   */
+  private static final int CELL_SHIFT = 8;
+  static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+  private static final int COLS = (WORLD_WIDTH + CELL_SIZE - 1) >> CELL_SHIFT;
+  private static final int ROWS = (WORLD_HEIGHT + CELL_SIZE - 1) >> CELL_SHIFT;
+
+  /**
+   * 칸별로 cellMobs에서 그 칸의 몹이 시작하는 위치. c번째 칸의 몹은 [cellStart[c], cellStart[c + 1]) 이다.
+   */
+  private final int[] cellStart = new int[COLS * ROWS + 1];
+  /**
+   * 칸 번호 순서로 늘어놓은 몹의 인덱스 (MobStore)
+   */
+  private int[] cellMobs = new int[16];
+  /**
+   * 몹 인덱스별로 들어있는 칸의 번호
+   */
+  private int[] mobCell = new int[16];
+
+  /**
+   * 몹의 현재 위치로 격자를 다시 만든다. 몹이 이동하거나 지워져서 인덱스가 바뀐 뒤에 호출한다.
+   */
+  void rebuild(MobStore mobs) {
+    int count = mobs.getCount();
+    if (count > cellMobs.length) {
+      cellMobs = new int[count];
+      mobCell = new int[count];
+    }
+
+    int[] start = cellStart;
+    for (int c = 0; c < start.length; c++) {
+      start[c] = 0;
+    }
+
+    /* 칸별 몹 수를 센다. 일단 c + 1번째에 센다. */
+    for (int i = 0; i < count; i++) {
+      int c = cellOf(mobs.cntrX[i], mobs.cntrY[i]);
+      mobCell[i] = c;
+      start[c + 1]++;
+    }
+    /* 누적해서 시작 위치로 만든다. */
+    for (int c = 1; c < start.length; c++) {
+      start[c] += start[c - 1];
+    }
+    /* 시작 위치부터 채우면서 시작 위치를 한 칸씩 밀고, 다 채운 뒤에 되돌린다. */
+    for (int i = 0; i < count; i++) {
+      cellMobs[start[mobCell[i]]++] = i;
+    }
+    for (int c = start.length - 1; c > 0; c--) {
+      start[c] = start[c - 1];
+    }
+    start[0] = 0;
+  }
+
+  /**
+   * (cntrX, cntrY)에서 사정거리 안에 있는 몹 중에 가장 멀리 간 몹을 찾는다. 이동한 거리가 같으면 먼저 생성된 몹을 고르므로, 칸을 검사하는
+   * 순서와 상관없이 길을 따라갈 때(ProgressIndex)와 같은 몹을 노린다. 사정거리에 걸치는 칸만 검사하고, 거리는 Fixed.inRange()로 제곱근
+   * 없이 비교한다.
+   *
+   * @return 몹의 인덱스. 없으면 -1
+   */
+  int findInRange(MobStore mobs, int cntrX, int cntrY, int range) {
+    int left = clampCol((cntrX - range) >> CELL_SHIFT);
+    int right = clampCol((cntrX + range) >> CELL_SHIFT);
+    int top = clampRow((cntrY - range) >> CELL_SHIFT);
+    int bottom = clampRow((cntrY + range) >> CELL_SHIFT);
+    int best = -1;
+    for (int row = top; row <= bottom; row++) {
+      int c = row * COLS + left;
+      int end = cellStart[row * COLS + right + 1];
+      for (int k = cellStart[c]; k < end; k++) {
+        int i = cellMobs[k];
+        if (Fixed.inRange(mobs.cntrX[i] - cntrX, mobs.cntrY[i] - cntrY, range)
+            && (best < 0 || isAhead(mobs, i, best))) {
+          best = i;
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @return i번째 몹이 j번째 몹보다 멀리 갔거나, 같은 거리에서 먼저 생성됐으면 true
+   */
+  private static boolean isAhead(MobStore mobs, int i, int j) {
+    if (mobs.progress[i] != mobs.progress[j]) {
+      return mobs.progress[i] > mobs.progress[j];
+    }
+    return mobs.spawnTick[i] < mobs.spawnTick[j];
+  }
+
+  private static int cellOf(int x, int y) {
+    return clampRow(y >> CELL_SHIFT) * COLS + clampCol(x >> CELL_SHIFT);
+  }
+
+  private static int clampCol(int col) {
+    return (col < 0) ? 0 : (col >= COLS) ? COLS - 1 : col;
+  }
+
+  private static int clampRow(int row) {
+    return (row < 0) ? 0 : (row >= ROWS) ? ROWS - 1 : row;
+  }
+}
@@ -0,0 +1,40 @@
+package hjsi.game;
+
+/**
+ * 그림 컴포넌트. 화면에 그려지는 개체에 붙는다. 게임 로직은 그림을 직접 갖고 있지 않고, 그리기 쪽에서 face 이름으로 비트맵을 찾는다.
+ */
+class SpriteStore extends ComponentStore {
+  int[] kind; // RenderSnapshot의 KIND_로 시작하는 상수 중 하나
+  int[] width;
+  int[] height;
+  String[] face;
+
+  void set(int e, int kind, int width, int height, String face) {
+    int i = attach(e);
+    this.kind[i] = kind;
+    this.width[i] = width;
+    this.height[i] = height;
+    this.face[i] = face;
+  }
+
+  @Override
+  void allocate(int capacity) {
+    kind = grow(kind, capacity);
+    width = grow(width, capacity);
+    height = grow(height, capacity);
+
+    String[] newFace = new String[capacity];
+    if (face != null) {
+      System.arraycopy(face, 0, newFace, 0, count);
+    }
+    face = newFace;
+  }
+
+  @Override
+  void copy(int from, int to) {
+    kind[to] = kind[from];
+    width[to] = width[from];
+    height[to] = height[from];
+    face[to] = face[from];
+  }
+}
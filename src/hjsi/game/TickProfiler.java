@@ -0,0 +1,200 @@
+package hjsi.game;
+
+import java.util.Arrays;
+
+/**
+ * GameMaster의 한 틱을 단계별로 나눠서 소요 시간을 잰다. 최근 WINDOW 틱 동안의 기록을 모아두었다가 WINDOW 틱마다 단계별
+ * 최소/평균/p99 값을 계산해둔다. 기록 중에는 메모리를 할당하지 않고 System.nanoTime()만 호출한다.
+ *
+ * 기록은 게임을 진행시키는 스레드에서만 하고, 계산된 값은 다른 스레드(그리기 스레드 등)에서 읽어도 된다. 읽는 도중에 값이 갱신되면 서로
+ * 다른 구간의 값이 섞여 보일 수 있지만 표시용이므로 문제 삼지 않는다.
+ */
+public class TickProfiler {
+  /*
+   * 틱의 단계
+   */
+  public static final int TIMER = 0; // 대기가 끝난 타이머 작업 수행
+  public static final int ACTION = 1; // 개체 이동, 체력 재생
+  public static final int SPAWN = 2; // 몹 생성
+  public static final int MOB = 3; // 몹 이동
+  public static final int ATTACK = 4; // 타워 공격
+  public static final int PROJECTILE = 5; // 투사체 이동
+  public static final int SNAPSHOT = 6; // 그리기용 스냅샷 발행
+  public static final int TOTAL = 7; // 틱 전체
+  public static final int PHASE_COUNT = 8;
+
+  private static final String[] PHASE_NAMES = {"timer", "action", "spawn", "mob", "attack", "proj", "snapshot",
+      "total"};
+
+  /**
+   * 통계를 낼 때 사용하는 틱 수
+   */
+  public static final int WINDOW = 256;
+  /**
+   * p99 값이 들어있는 정렬된 기록의 인덱스
+   */
+  private static final int P99_INDEX = WINDOW * 99 / 100;
+
+  /**
+   * 단계별 소요 시간 기록. 단위 ns
+   */
+  private final long[][] samples = new long[PHASE_COUNT][WINDOW];
+  /**
+   * 통계를 낼 때 기록을 정렬하기 위한 작업 공간
+   */
+  private final long[] sorted = new long[WINDOW];
+  /**
+   * 이번 틱의 기록이 들어갈 위치
+   */
+  private int index = 0;
+
+  /*
+   * 마지막으로 계산한 단계별 통계. 단위 ns
+   */
+  private final long[] min = new long[PHASE_COUNT];
+  private final long[] avg = new long[PHASE_COUNT];
+  private final long[] p99 = new long[PHASE_COUNT];
+  /**
+   * 지금까지 통계를 계산한 횟수. 0이면 아직 계산된 통계가 없다.
+   */
+  private volatile int windowCount = 0;
+
+  private volatile boolean enabled = true;
+
+  /**
+   * 기록을 켜거나 끈다. 끄면 start()와 record()가 시간을 재지 않는다.
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * 틱이나 단계의 시작 시간을 구한다.
+   *
+   * @return 기록이 켜져 있으면 현재 시간(ns), 꺼져 있으면 0
+   */
+  public long start() {
+    return enabled ? System.nanoTime() : 0L;
+  }
+
+  /**
+   * 한 단계가 끝났을 때 호출해서 소요 시간을 기록한다. 반환값을 다음 단계의 시작 시간으로 그대로 쓸 수 있다.
+   *
+   * @param phase 끝난 단계
+   * @param start 단계의 시작 시간
+   * @return 현재 시간(ns). 기록이 꺼져 있으면 0
+   */
+  public long record(int phase, long start) {
+    if (!enabled) {
+      return 0L;
+    }
+    long now = System.nanoTime();
+    samples[phase][index] = now - start;
+    return now;
+  }
+
+  /**
+   * 틱이 끝났을 때 호출해서 틱 전체의 소요 시간을 기록하고 다음 틱으로 넘어간다. WINDOW 틱마다 통계를 새로 계산한다.
+   *
+   * @param tickStart 틱의 시작 시간
+   */
+  public void endTick(long tickStart) {
+    if (!enabled) {
+      return;
+    }
+    samples[TOTAL][index] = System.nanoTime() - tickStart;
+
+    if (++index == WINDOW) {
+      summarize();
+      index = 0;
+    }
+  }
+
+  /**
+   * 모아둔 기록으로 단계별 통계를 계산한다.
+   */
+  private void summarize() {
+    for (int phase = 0; phase < PHASE_COUNT; phase++) {
+      long sum = 0L;
+      for (int i = 0; i < WINDOW; i++) {
+        sorted[i] = samples[phase][i];
+        sum += sorted[i];
+      }
+      Arrays.sort(sorted);
+
+      min[phase] = sorted[0];
+      avg[phase] = sum / WINDOW;
+      p99[phase] = sorted[P99_INDEX];
+    }
+    windowCount++;
+  }
+
+  public static String getPhaseName(int phase) {
+    return PHASE_NAMES[phase];
+  }
+
+  /**
+   * @return 통계가 한 번이라도 계산되었으면 true
+   */
+  public boolean hasSummary() {
+    return windowCount > 0;
+  }
+
+  /**
+   * @return 최근 통계 구간의 최소 소요 시간. 단위 ns
+   */
+  public long getMin(int phase) {
+    return min[phase];
+  }
+
+  /**
+   * @return 최근 통계 구간의 평균 소요 시간. 단위 ns
+   */
+  public long getAvg(int phase) {
+    return avg[phase];
+  }
+
+  /**
+   * @return 최근 통계 구간의 p99 소요 시간. 단위 ns
+   */
+  public long getP99(int phase) {
+    return p99[phase];
+  }
+
+  /**
+   * 최근 통계를 표 형태의 문자열로 만든다. 로그 출력용이다.
+   *
+   * @return 단계별 min/avg/p99 (단위 us)
+   */
+  public String dump() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("tick profile (last ").append(WINDOW).append(" ticks, us) min / avg / p99");
+    if (!hasSummary()) {
+      return sb.append(": no data").toString();
+    }
+
+    for (int phase = 0; phase < PHASE_COUNT; phase++) {
+      sb.append('\n').append(PHASE_NAMES[phase]).append(": ");
+      sb.append(toMicros(min[phase])).append(" / ");
+      sb.append(toMicros(avg[phase])).append(" / ");
+      sb.append(toMicros(p99[phase]));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * ns 단위 시간을 소수점 둘째 자리까지의 us 단위 문자열로 바꾼다. 단계 하나는 1us도 안 걸리는 경우가 많아서 정수 us로 자르면 0만 보인다.
+   *
+   * @param nanos 시간. 단위 ns
+   * @return 소수점 둘째 자리에서 반올림한 시간. 단위 us
+   */
+  public static String toMicros(long nanos) {
+    long hundredths = (nanos + 5L) / 10L;
+    long fraction = hundredths % 100L;
+    return (hundredths / 100L) + (fraction < 10L ? ".0" : ".") + fraction;
+  }
+}
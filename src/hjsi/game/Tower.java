@@ -1,19 +1,19 @@
 package hjsi.game;
 
-import hjsi.common.AppManager;
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-
-public class Tower extends Unit implements Attackable {
+/**
+ * 타워의 종류별 정보. 상점과 조합 화면, 배치할 타워(GameState.inHand)가 사용한다. 게임 맵에 배치하면
+ * EntityWorld.createTower()가 이 정보로 위치, 그림, 무기 컴포넌트를 붙인 개체를 만든다.
+ */
+public class Tower {
   public String name;
   /**
    * 공격력
    */
   public int damage;
   /**
-   * 공격속도
+   * 공격속도. 공격 한 번 후에 다음 공격까지 기다리는 틱 수
    */
-  public int attackSpeed = 2000;
+  public int attackSpeed = GameMaster.msToTicks(2000);
   /**
    * 사정거리
    */
@@ -23,8 +23,16 @@ public class Tower extends Unit implements Attackable {
    */
   private int type;
   public String imgName;
+  /**
+   * 게임 맵에 그릴 때 사용할 그림의 이름
+   */
+  public String faceName = "tower1";
 
-  private long beforeTime = System.currentTimeMillis();
+  /**
+   * 타워의 크기
+   */
+  public static final int WIDTH = 256;
+  public static final int HEIGHT = 389;
 
   private static final int PRIMITIVE = 1;
   private static final int BASIC = 2;
@@ -35,55 +43,11 @@ public class Tower extends Unit implements Attackable {
   private static final int HIDDEN = 7;
 
   public Tower() {
-    super();
     name = "불";
     type = 0;
     damage = 5;
-    imgName = "element_match";
-
-  }
-
-  public Tower(int x, int y, Bitmap face) {
-    super(x, y, face);
     range = 400;
-  }
-
-  @Override
-  public void action() {
-    // TODO Auto-generated method stub
-
-  }
-
-  @Override
-  public void touch() {
-    // TODO Auto-generated method stub
-
-  }
-
-  @Override
-  public void draw(Canvas canvas) {
-    super.draw(canvas);
-    showRange(range, canvas);
-  }
-
-  @Override
-  public void attack() {
-    // TODO Auto-generated method stub
-    if (System.currentTimeMillis() - beforeTime > attackSpeed)
-      beforeTime = System.currentTimeMillis();
-    else
-      return;
-    for (int i = 0; i < GameState.getInstance().Mobs.size(); i++) {
-      if (GameState.getInstance().Mobs.get(i).created == false)
-        continue;
-
-      else if ((int) Math.sqrt(Math.pow(GameState.getInstance().Mobs.get(i).cntrX - this.cntrX, 2)
-          + Math.pow(GameState.getInstance().Mobs.get(i).cntrY - this.cntrY, 2)) <= range) {
-        GameState.getInstance().projs.add(new Projectile(cntrX, cntrY, damage, i, AppManager
-            .getInstance().getBitmap("proj1")));
-        break;
-      }
-    }
+    imgName = "element_match";
 
   }
 }
@@ -0,0 +1,85 @@
+package hjsi.game;
+
+/**
+ * 무기 컴포넌트. 사정거리 안의 몹에게 투사체를 쏘는 개체에 붙는다. 위치 컴포넌트도 있어야 쏜다. 무기는 다음에 공격할 수 있는 틱
+ * 순서로 ready에도 들어있다.
+ */
+class WeaponStore extends ComponentStore {
+  int[] damage; // 공격력
+  int[] range; // 사정거리
+  int[] period; // 공격 한 번 후에 다음 공격까지 기다리는 틱 수
+  long[] nextTick; // 다음 공격이 가능해지는 틱
+  int[] target; // 지금 노리고 있는 몹의 핸들 (MobStore)
+  /**
+   * 사정거리가 닿는 길 위의 거리 구간. 시작과 끝을 차례로 늘어놓은 배열이고 Path.coverage()로 구한다. 길을 모르면 null
+   */
+  int[][] cover;
+
+  /**
+   * 무기를 다음에 공격할 수 있는 틱 순서로 꺼내는 큐
+   */
+  final ReadyQueue ready = new ReadyQueue();
+
+  void set(int e, int damage, int range, int period) {
+    int i = attach(e);
+    this.damage[i] = damage;
+    this.range[i] = range;
+    this.period[i] = period;
+    nextTick[i] = 0L;
+    target[i] = HandleTable.NONE;
+    cover[i] = null;
+    ready.push(0L, e);
+  }
+
+  /**
+   * i번째 무기가 다음에 공격할 수 있는 틱을 정하고 큐에 다시 넣는다.
+   */
+  void rearm(int i, long readyTick) {
+    nextTick[i] = readyTick;
+    ready.push(readyTick, entity[i]);
+  }
+
+  /**
+   * @return progress 거리에 있는 몹이 i번째 무기의 사정거리 안이면 true
+   */
+  boolean covers(int i, int progress) {
+    int[] c = cover[i];
+    for (int k = 0; k < c.length; k += 2) {
+      if (c[k] <= progress && progress <= c[k + 1]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  void allocate(int capacity) {
+    damage = grow(damage, capacity);
+    range = grow(range, capacity);
+    period = grow(period, capacity);
+    target = grow(target, capacity);
+
+    long[] newNextTick = new long[capacity];
+    if (nextTick != null) {
+      System.arraycopy(nextTick, 0, newNextTick, 0, count);
+    }
+    nextTick = newNextTick;
+
+    int[][] newCover = new int[capacity][];
+    if (cover != null) {
+      System.arraycopy(cover, 0, newCover, 0, count);
+    }
+    cover = newCover;
+  }
+
+  @Override
+  void copy(int from, int to) {
+    damage[to] = damage[from];
+    range[to] = range[from];
+    period[to] = period[from];
+    nextTick[to] = nextTick[from];
+    target[to] = target[from];
+    cover[to] = cover[from];
+    cover[from] = null;
+  }
+}
@@ -0,0 +1,140 @@
+package hjsi.timer;
+
+import hjsi.game.GameLog;
+
+/**
+ * 유닛마다 여러 개씩 갖는 쿨타임(공격, 재생, 상태 효과 등)을 모아서 관리하는 저장소. 쿨타임은 Timer 객체 대신 정수 핸들로 다루고, 값은 핸들을
+ * 인덱스로 하는 기본형 배열에 들어있다. 쿨타임은 만료 시간만 기록해두고 사용하는 쪽이 현재 시간과 비교해서 확인하므로, 시간이 흘러도 저장소를
+ * 돌아볼 필요가 없다. 등록, 리셋, 취소, 반납이 모두 O(1)이고, 반납된 칸은 다음 등록 때 재사용되므로 평소에는 메모리를 할당하지 않는다.
+ *
+ * 게임을 진행시키는 스레드에서만 사용한다.
+ */
+class CooldownStore {
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * 취소된 쿨타임의 만료 시간. 끝나지 않는다.
+   */
+  private static final long NEVER = Long.MAX_VALUE;
+  /**
+   * 반납된 칸의 주기 값
+   */
+  private static final long FREE = -1L;
+
+  /*
+   * 쿨타임 정보. 같은 인덱스끼리 한 쿨타임을 나타낸다.
+   */
+  private long[] period; // 쿨타임의 길이. 반납된 칸은 FREE. 단위 ms
+  private long[] deadline; // 쿨타임이 끝나는 시간. 단위 ms
+  private int[] nextFree; // 반납된 칸끼리 연결한 목록
+
+  private int freeHead = -1; // 처음으로 재사용할 반납된 칸. 없으면 -1
+  private int count = 0; // 한 번이라도 사용된 칸의 수
+  private int used = 0; // 현재 사용 중인 칸의 수
+
+  CooldownStore() {
+    period = new long[INITIAL_CAPACITY];
+    deadline = new long[INITIAL_CAPACITY];
+    nextFree = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * 쿨타임을 등록한다. 등록된 쿨타임은 끝난 상태다.
+   *
+   * @param milliSec 쿨타임의 길이. 단위 ms
+   * @return 쿨타임의 핸들
+   */
+  int add(long milliSec) {
+    int handle;
+    if (freeHead != -1) {
+      handle = freeHead;
+      freeHead = nextFree[handle];
+    } else {
+      if (count == period.length) {
+        grow(count * 2);
+      }
+      handle = count++;
+    }
+
+    period[handle] = milliSec;
+    deadline[handle] = Long.MIN_VALUE;
+    used++;
+    return handle;
+  }
+
+  /**
+   * 쿨타임을 반납한다. 반납한 핸들은 다시 사용하면 안 된다.
+   */
+  void remove(int handle) {
+    check(handle);
+    period[handle] = FREE;
+    nextFree[handle] = freeHead;
+    freeHead = handle;
+    used--;
+  }
+
+  /**
+   * 쿨타임을 처음부터 다시 시작한다.
+   *
+   * @param now 현재 시간. 단위 ms
+   */
+  void reset(int handle, long now) {
+    check(handle);
+    deadline[handle] = now + period[handle];
+  }
+
+  /**
+   * 쿨타임을 멈춘다. 다시 reset()하기 전까지 끝나지 않는다.
+   */
+  void cancel(int handle) {
+    check(handle);
+    deadline[handle] = NEVER;
+  }
+
+  /**
+   * @param now 현재 시간. 단위 ms
+   * @return 쿨타임이 끝났으면 true
+   */
+  boolean isDone(int handle, long now) {
+    return deadline[handle] <= now;
+  }
+
+  /**
+   * @param now 현재 시간. 단위 ms
+   * @return 쿨타임이 끝나기까지 남은 시간. 끝났으면 0, 멈춘 쿨타임은 Long.MAX_VALUE. 단위 ms
+   */
+  long getRemain(int handle, long now) {
+    if (deadline[handle] == NEVER) {
+      return NEVER;
+    }
+    return Math.max(deadline[handle] - now, 0L);
+  }
+
+  /**
+   * @return 현재 사용 중인 쿨타임 수
+   */
+  int size() {
+    return used;
+  }
+
+  private void grow(int capacity) {
+    long[] newPeriod = new long[capacity];
+    long[] newDeadline = new long[capacity];
+    int[] newNextFree = new int[capacity];
+    System.arraycopy(period, 0, newPeriod, 0, count);
+    System.arraycopy(deadline, 0, newDeadline, 0, count);
+    System.arraycopy(nextFree, 0, newNextFree, 0, count);
+    period = newPeriod;
+    deadline = newDeadline;
+    nextFree = newNextFree;
+  }
+
+  /**
+   * 디버그 빌드에서 반납된 핸들을 사용하는지 검사한다.
+   */
+  private void check(int handle) {
+    if (GameLog.isDebug() && (handle < 0 || handle >= count || period[handle] == FREE)) {
+      throw new AssertionError("invalid cooldown handle: " + handle);
+    }
+  }
+}
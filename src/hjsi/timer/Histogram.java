@@ -0,0 +1,118 @@
+package hjsi.timer;
+
+/**
+ * 0 이상의 값을 2의 거듭제곱 구간으로 나눠서 세는 히스토그램. i번째 칸에는 [2^(i-1), 2^i) 구간의 값이 들어가고 0번째 칸에는 0이
+ * 들어간다. 기록할 때 메모리를 할당하지 않으므로 매 틱 기록해도 된다.
+ *
+ * 한 스레드에서만 기록한다. 다른 스레드에서 읽는 값은 기록 도중의 값이 섞여 보일 수 있지만 표시용이므로 문제 삼지 않는다.
+ */
+public class Histogram {
+  /**
+   * 칸의 수. 마지막 칸에는 그보다 큰 값이 모두 들어간다.
+   */
+  public static final int BUCKETS = 40;
+
+  private final String name;
+  private final String unit;
+
+  private final long[] counts = new long[BUCKETS];
+  private long total = 0L;
+  private long sum = 0L;
+  private long max = 0L;
+
+  /**
+   * @param name 출력할 때 사용하는 이름
+   * @param unit 값의 단위. 출력할 때만 사용한다.
+   */
+  public Histogram(String name, String unit) {
+    this.name = name;
+    this.unit = unit;
+  }
+
+  /**
+   * 값을 기록한다. 음수는 0으로 기록한다.
+   */
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    counts[Math.min(64 - Long.numberOfLeadingZeros(value), BUCKETS - 1)]++;
+    total++;
+    sum += value;
+    if (value > max) {
+      max = value;
+    }
+  }
+
+  /**
+   * 기록을 모두 지운다.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = 0L;
+    }
+    total = 0L;
+    sum = 0L;
+    max = 0L;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return i번째 칸에 기록된 값의 수
+   */
+  public long getCount(int i) {
+    return counts[i];
+  }
+
+  /**
+   * @return i번째 칸에 들어가는 가장 큰 값
+   */
+  public static long getBucketLimit(int i) {
+    return (i == 0) ? 0L : (1L << i) - 1;
+  }
+
+  /**
+   * @return 기록된 값의 수
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public long getAverage() {
+    return (total == 0) ? 0L : sum / total;
+  }
+
+  /**
+   * 백분위 값을 구한다. 값이 들어있는 칸의 상한을 반환하므로 실제 값보다 최대 2배 크게 나올 수 있다.
+   *
+   * @param percent 0 ~ 100
+   * @return 기록된 값의 percent%가 이 값 이하다. 기록이 없으면 0
+   */
+  public long getPercentile(int percent) {
+    long target = (total * percent + 99) / 100;
+    long seen = 0L;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= target && seen > 0) {
+        return Math.min(getBucketLimit(i), max);
+      }
+    }
+    return 0L;
+  }
+
+  /**
+   * @return 로그 출력용 요약. 이름: 개수 / 평균 / p50 / p99 / 최대
+   */
+  @Override
+  public String toString() {
+    return name + " (" + unit + "): n=" + total + " avg=" + getAverage() + " p50=" + getPercentile(50) + " p99="
+        + getPercentile(99) + " max=" + max;
+  }
+}
@@ -0,0 +1,133 @@
+package hjsi.timer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 여러 스레드가 작업을 넣고 한 스레드(GameMaster)만 작업을 꺼내는 크기가 정해진 원형 큐. 락을 쓰지 않고, 칸마다 순번을 두어서 넣는 쪽끼리는
+ * tail을 CAS로 다투고 꺼내는 쪽은 순번만 확인한다. 칸을 재사용하므로 작업을 넣을 때 메모리를 할당하지 않는다.
+ *
+ * 칸의 순번이 위치와 같으면 비어서 넣을 수 있는 칸이고, 위치 + 1이면 작업이 들어있어서 꺼낼 수 있는 칸이다. 꺼낸 칸의 순번은 한 바퀴 뒤의 위치로
+ * 바꿔서 다음 차례에 다시 넣을 수 있게 한다.
+ */
+class TaskRing {
+  private final int mask;
+  private final AtomicReferenceArray<TimerRunnable> tasks;
+  private final AtomicLongArray sequences;
+  /*
+   * 작업과 함께 넣는 정보. 칸의 순번을 바꾸기 전에 기록하므로 순번을 확인한 쪽에서는 올바른 값이 보인다.
+   */
+  private final long[] times; // 작업을 넣은 시간. 단위 ns
+  private final int[] kinds; // 작업의 종류. TimerMetrics의 종류 상수
+
+  /*
+   * 마지막으로 꺼낸 작업의 정보. 꺼내는 쪽 스레드만 사용한다.
+   */
+  private long polledTime;
+  private int polledKind;
+
+  /**
+   * 다음에 작업을 넣을 위치. 넣는 쪽 스레드들이 함께 사용한다.
+   */
+  private final AtomicLong tail = new AtomicLong(0L);
+  /**
+   * 다음에 작업을 꺼낼 위치. 꺼내는 쪽 스레드만 사용한다.
+   */
+  private long head = 0L;
+
+  /**
+   * @param capacity 큐의 크기. 2의 거듭제곱이어야 한다.
+   */
+  TaskRing(int capacity) {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+    }
+    mask = capacity - 1;
+    tasks = new AtomicReferenceArray<TimerRunnable>(capacity);
+    sequences = new AtomicLongArray(capacity);
+    times = new long[capacity];
+    kinds = new int[capacity];
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * 작업을 넣는다. 어느 스레드에서나 호출할 수 있다.
+   *
+   * @param kind 작업의 종류
+   * @param time 작업을 넣은 시간. 단위 ns
+   * @return 큐가 가득 차서 넣지 못했으면 false
+   */
+  boolean offer(TimerRunnable task, int kind, long time) {
+    long pos = tail.get();
+    while (true) {
+      int index = (int) (pos & mask);
+      long diff = sequences.get(index) - pos;
+
+      if (diff == 0) { // 빈 칸이면 차지를 시도한다.
+        if (tail.compareAndSet(pos, pos + 1)) {
+          tasks.lazySet(index, task);
+          times[index] = time;
+          kinds[index] = kind;
+          sequences.set(index, pos + 1); // 작업이 들어있음을 알린다. 위의 작업 기록이 먼저 보이게 된다.
+          return true;
+        }
+        pos = tail.get();
+      } else if (diff < 0) { // 아직 꺼내지 않은 작업이 있는 칸까지 한 바퀴 돌았다.
+        return false;
+      } else { // 다른 스레드가 먼저 차지했다.
+        pos = tail.get();
+      }
+    }
+  }
+
+  /**
+   * 작업을 하나 꺼낸다. 꺼내는 스레드 하나에서만 호출한다.
+   *
+   * @return 꺼낸 작업. 비었거나 다음 칸에 아직 작업이 다 들어오지 않았으면 null
+   */
+  TimerRunnable poll() {
+    int index = (int) (head & mask);
+    if (sequences.get(index) != head + 1) {
+      return null;
+    }
+
+    TimerRunnable task = tasks.get(index);
+    polledTime = times[index];
+    polledKind = kinds[index];
+    tasks.lazySet(index, null);
+    sequences.set(index, head + mask + 1); // 한 바퀴 뒤에 다시 넣을 수 있게 한다.
+    head++;
+    return task;
+  }
+
+  /**
+   * @return 마지막으로 꺼낸 작업을 넣은 시간. 단위 ns
+   */
+  long getPolledTime() {
+    return polledTime;
+  }
+
+  /**
+   * @return 마지막으로 꺼낸 작업의 종류
+   */
+  int getPolledKind() {
+    return polledKind;
+  }
+
+  /**
+   * 지금 들어있는 작업 수를 구한다. 다른 스레드가 넣는 중인 작업도 포함되므로, 그만큼은 poll()이 아직 null을 반환할 수 있다.
+   */
+  int size() {
+    return (int) (tail.get() - head);
+  }
+
+  /**
+   * @return 큐의 크기
+   */
+  int capacity() {
+    return mask + 1;
+  }
+}
@@ -0,0 +1,115 @@
+package hjsi.timer;
+
+/**
+ * 작업큐(TaskRing)가 가득 찼을 때 작업을 꺼내는 스레드(GameMaster)가 넣으려던 작업을 담아두는 큐. 그 스레드는 작업큐의 유일한 소비자라서
+ * 자리가 날 때까지 기다릴 수 없으므로, 작업을 버리거나 그 자리에서 수행하는 대신 여기에 넣어두고 다음 번에 작업큐보다 먼저 꺼낸다. 그 스레드
+ * 하나만 사용하므로 락을 걸지 않는다. 가득 차면 크기를 두 배로 늘린다.
+ */
+class TaskSpill {
+  private TimerRunnable[] tasks;
+  private long[] times; // 작업을 넣은 시간. 단위 ns
+  private int[] kinds; // 작업의 종류. TimerMetrics의 종류 상수
+
+  /*
+   * 마지막으로 꺼낸 작업의 정보
+   */
+  private long polledTime;
+  private int polledKind;
+
+  private int head = 0; // 다음에 꺼낼 위치
+  private int tail = 0; // 다음에 넣을 위치
+
+  /**
+   * @param capacity 처음 크기
+   */
+  TaskSpill(int capacity) {
+    tasks = new TimerRunnable[capacity];
+    times = new long[capacity];
+    kinds = new int[capacity];
+  }
+
+  /**
+   * 작업을 넣는다.
+   *
+   * @param kind 작업의 종류
+   * @param time 작업을 넣은 시간. 단위 ns
+   */
+  void add(TimerRunnable task, int kind, long time) {
+    if (tail == tasks.length) {
+      compact();
+    }
+    tasks[tail] = task;
+    times[tail] = time;
+    kinds[tail] = kind;
+    tail++;
+  }
+
+  /**
+   * 작업을 하나 꺼낸다.
+   *
+   * @return 꺼낸 작업. 비었으면 null
+   */
+  TimerRunnable poll() {
+    if (head == tail) {
+      return null;
+    }
+    TimerRunnable task = tasks[head];
+    polledTime = times[head];
+    polledKind = kinds[head];
+    tasks[head] = null;
+    head++;
+    if (head == tail) { // 다 꺼냈으면 처음부터 다시 채운다.
+      head = 0;
+      tail = 0;
+    }
+    return task;
+  }
+
+  /**
+   * 꺼낸 자리를 앞으로 당긴다. 당길 자리가 없으면 크기를 두 배로 늘린다.
+   */
+  private void compact() {
+    int size = tail - head;
+    if (head == 0) {
+      TimerRunnable[] newTasks = new TimerRunnable[tasks.length * 2];
+      long[] newTimes = new long[tasks.length * 2];
+      int[] newKinds = new int[tasks.length * 2];
+      System.arraycopy(tasks, 0, newTasks, 0, size);
+      System.arraycopy(times, 0, newTimes, 0, size);
+      System.arraycopy(kinds, 0, newKinds, 0, size);
+      tasks = newTasks;
+      times = newTimes;
+      kinds = newKinds;
+    } else {
+      System.arraycopy(tasks, head, tasks, 0, size);
+      System.arraycopy(times, head, times, 0, size);
+      System.arraycopy(kinds, head, kinds, 0, size);
+      for (int i = size; i < tail; i++) {
+        tasks[i] = null;
+      }
+      head = 0;
+    }
+    tail = size;
+  }
+
+  /**
+   * @return 마지막으로 꺼낸 작업을 넣은 시간. 단위 ns
+   */
+  long getPolledTime() {
+    return polledTime;
+  }
+
+  /**
+   * @return 마지막으로 꺼낸 작업의 종류
+   */
+  int getPolledKind() {
+    return polledKind;
+  }
+
+  /**
+   * @return 들어있는 작업 수
+   */
+  int size() {
+    return tail - head;
+  }
+}
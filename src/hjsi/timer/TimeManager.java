@@ -1,63 +1,167 @@
 package hjsi.timer;
 
-import hjsi.activity.BuildConfig;
-import hjsi.common.AppManager;
+import hjsi.game.GameLog;
+
+/**
+ * 게임 안의 타이머를 관리한다. 두 가지 방식으로 동작할 수 있다.
+ * <ul>
+ * <li>틱 방식(기본값): 별도의 스레드 없이 GameMaster가 매 틱마다 advanceTime()을 호출할 때 그 자리에서 타이머의 초읽기를 진행한다. 타이머는
+ * 틱에 정확히 맞춰서 끝나고, 끝난 작업은 같은 틱 안에서 nextTask()로 꺼내진다. 모든 호출이 게임을 진행시키는 스레드에서 이뤄지므로 락을 걸지
+ * 않는다. 따라서 타이머 등록과 리셋은 게임을 진행시키는 스레드(또는 그 스레드가 시작되기 전)에서만 해야 한다.</li>
+ * <li>스레드 방식: TimeManager의 스레드가 시뮬레이션 시간을 지켜보다가 타이머의 초읽기를 진행하고, 끝난 작업을 작업큐에 넣어서 GameMaster에
+ * 넘긴다. 여러 스레드에서 접근하므로 목록마다 락을 건다.</li>
+ * </ul>
+ * 방식은 setTickDriven()으로 정하고, TimeManager가 처음 사용될 때(또는 stopTime() 후 다시 사용될 때) 적용된다.
+ *
+ * 카운트다운 중인 타이머는 만료 시간에 따라 TimingWheel에 나눠 담기므로, 시간을 진행시킬 때 만료되는 타이머만 처리하고 나머지 타이머는 건드리지
+ * 않는다.
+ */
+public class TimeManager implements Runnable {
+  private static volatile TimeManager uniqueInstance; // 자신의 유일한 인스턴스를 가지고 있는다.
+  /**
+   * stopTime()으로 종료된 인스턴스. 다음에 만들어지는 인스턴스가 이 인스턴스의 타이머와 쿨타임, 작업큐를 그대로 물려받는다.
+   */
+  private static TimeManager retired;
 
-import java.util.Iterator;
-import java.util.LinkedList;
+  /**
+   * 다음에 만들어질 인스턴스의 동작 방식. true면 틱 방식, false면 스레드 방식이다.
+   */
+  private static volatile boolean tickDrivenMode = true;
 
-public class TimeManager implements Runnable {
-  private static TimeManager uniqueInstance; // 자신의 유일한 인스턴스를 가지고 있는다.
+  /**
+   * 타이머의 초읽기를 한 번에 진행하는 최대 시간. 이보다 많은 시간이 밀렸으면 여러 번에 나눠서 진행해서, 콜백 타이머의 작업이 한꺼번에 몰려서
+   * 쌓이지 않게 한다. 단위 ms
+   */
+  private static final long MAX_STEP = 100L;
+
+  /**
+   * 작업큐의 크기
+   */
+  private static final int TASK_CAPACITY = 1024;
+  /**
+   * 작업큐가 가득 찼을 때 넘친 작업을 담아두는 큐의 처음 크기
+   */
+  private static final int SPILL_CAPACITY = 16;
 
   /**
    * 시간을 계산하고 타이머를 수행하는 스레드
    */
   private Thread workerThread;
 
+  /**
+   * 이 인스턴스의 동작 방식. true면 스레드 없이 advanceTime()에서 바로 타이머를 진행시킨다.
+   */
+  private final boolean tickDriven;
+
   /**
    * 값이 true가 돼야 스레드가 완전히 종료된다.
    */
-  private boolean termination = false;
+  private volatile boolean termination = false;
 
   /**
    * 값에 따라 TimeManager를 스레드를 재생시키거나 일시적으로 멈춘다.
    */
-  private boolean running = false;
+  private volatile boolean running = false;
+
+  /**
+   * 일시정지된 스레드를 재우고 깨우기 위한 모니터. running, termination 값을 바꿀 때는 이 모니터에 notify 해준다.
+   */
+  private final Object pauseLock = new Object();
 
   private volatile long startTime = 0L; // 시간 측정을 위한 변수
+  /**
+   * 타이머의 초읽기가 진행된 시간. TimeManager가 일시정지된 동안은 흐르지 않는다. 타이머의 만료 시간은 이 시간을 기준으로 한다. 단위 ms
+   */
+  private volatile long timerTime = 0L;
+  /**
+   * GameMaster가 지금까지 진행시킨 시뮬레이션 시간. 타이머는 실제 시간이 아닌 이 시간을 기준으로 초읽기를 하므로 게임 배속을
+   * 그대로 따라간다. 단위 ms
+   */
+  private volatile long simulatedTime = 0L;
   private volatile long elapsedTime = 0L; // 시간 측정을 위한 변수
 
   /*
    * 타이머 목록
    */
-  private LinkedList<Timer> countList; // 카운트다운이 끝나기를 기다리는 타이머 리스트
-  private LinkedList<Timer> countDoneList; // 카운트다운이 끝나서 언제든지 행동을 할 수 있는 타이머 리스트
+  private TimingWheel countWheel; // 카운트다운이 끝나기를 기다리는 타이머를 만료 시간별로 담는 휠
+  private TimerList countDoneList; // 카운트다운이 끝나서 언제든지 행동을 할 수 있는 타이머 리스트
+  private TimerList expiredList; // 초읽기 중에 만료된 타이머를 잠시 담아두는 리스트
+  private CooldownStore cooldowns; // 유닛의 쿨타임 저장소
+
+  /**
+   * 타이머가 얼마나 늦게 처리되는지 재는 지표
+   */
+  private final TimerMetrics metrics = new TimerMetrics();
   /**
-   * 대기시간이 끝난 타이머의 작업을 가지고 있는 큐다. 작업을 수행하는 스레드(GameMaster)가 이 작업큐에 들어있는 작업을 꺼내서 수행하게 된다.
+   * 대기시간이 끝난 타이머의 작업과 다른 스레드가 post()로 넘긴 작업을 가지고 있는 큐다. 작업을 수행하는 스레드(GameMaster)가 이 작업큐에
+   * 들어있는 작업을 꺼내서 수행하게 된다. 락이 없는 큐라서 어느 방식에서든 락을 걸지 않는다.
    */
-  private LinkedList<TimerRunnable> taskQueue;
+  private TaskRing taskQueue;
+  /**
+   * 작업큐가 가득 찼을 때 게임을 진행시키는 스레드가 넘긴 작업을 담아두는 큐. 그 스레드만 사용한다.
+   */
+  private TaskSpill taskSpill;
+  /**
+   * 작업큐에서 작업을 꺼내는 스레드(GameMaster). advanceTime(), runTasks(), nextTask()를 호출하는 스레드다. 이 스레드가 넘기는 작업은
+   * 작업큐가 가득 차도 기다리지 않고 taskSpill에 넣는다.
+   */
+  private volatile Thread consumerThread;
 
   /**
-   * 비공개 생성자
+   * 비공개 생성자. stopTime()으로 종료된 인스턴스가 있으면 그 인스턴스의 타이머 목록과 쿨타임, 작업큐, 초읽기 시간을 물려받아서, 게임 상태가
+   * 가지고 있는 타이머와 쿨타임 핸들을 계속 쓸 수 있게 한다.
    */
-  private TimeManager() {
-    countList = new LinkedList<Timer>();
-    countDoneList = new LinkedList<Timer>();
+  private TimeManager(TimeManager previous) {
+    if (previous != null) {
+      countWheel = previous.countWheel;
+      countDoneList = previous.countDoneList;
+      expiredList = previous.expiredList;
+      cooldowns = previous.cooldowns;
+      taskQueue = previous.taskQueue;
+      taskSpill = previous.taskSpill;
+      timerTime = previous.timerTime;
+    } else {
+      countWheel = new TimingWheel();
+      countDoneList = new TimerList();
+      expiredList = new TimerList();
+      cooldowns = new CooldownStore();
+      taskQueue = new TaskRing(TASK_CAPACITY);
+      taskSpill = new TaskSpill(SPILL_CAPACITY);
+    }
 
-    taskQueue = new LinkedList<TimerRunnable>();
+    tickDriven = tickDrivenMode;
+    if (!tickDriven) {
+      workerThread = new Thread(this);
+      workerThread.start();
+    }
+  }
+
+  /**
+   * 타이머의 동작 방식을 정한다. 이미 사용 중인 TimeManager에는 적용되지 않고, 처음 사용할 때나 stopTime()으로 종료한 후 다시 사용할 때부터
+   * 적용된다.
+   *
+   * @param tickDriven true면 GameMaster의 틱에 맞춰 진행하는 틱 방식, false면 별도의 스레드를 사용하는 스레드 방식
+   */
+  public static void setTickDriven(boolean tickDriven) {
+    tickDrivenMode = tickDriven;
+  }
 
-    workerThread = new Thread(this);
-    workerThread.start();
+  /**
+   * @return 현재 TimeManager가 틱 방식으로 동작하면 true
+   */
+  public static boolean isTickDriven() {
+    return getInstance().tickDriven;
   }
 
   /**
    * @return 유일한 <strong>TimeManager</strong> 인스턴스를 반환함
    */
-  private static TimeManager getInstance() {
+  static TimeManager getInstance() {
     if (uniqueInstance == null) {
       synchronized (TimeManager.class) {
         if (uniqueInstance == null) {
-          uniqueInstance = new TimeManager();
+          uniqueInstance = new TimeManager(retired);
+          retired = null;
         }
       }
     }
@@ -68,124 +172,242 @@ public class TimeManager implements Runnable {
    * TimeManager의 스레드를 시작한다.
    */
   public static void startTime() {
-    AppManager.printSimpleLog();
-    getInstance().running = true;
-    getInstance().startTime = System.currentTimeMillis();
+    GameLog.printSimpleLog();
+    TimeManager instance = getInstance();
+    synchronized (instance.pauseLock) {
+      instance.running = true;
+      instance.pauseLock.notifyAll();
+    }
   }
 
   /**
    * TimeManager의 스레드를 일시정지한다.
    */
   public static void pauseTime() {
-    AppManager.printSimpleLog();
-    getInstance().running = false;
+    GameLog.printSimpleLog();
+    TimeManager instance = getInstance();
+    synchronized (instance.pauseLock) {
+      instance.running = false;
+      instance.pauseLock.notifyAll();
+    }
   }
 
   /**
-   * TimeManager를 종료시킨다.
+   * TimeManager를 종료시킨다. 등록된 타이머와 쿨타임은 없어지지 않고 다음에 TimeManager를 사용할 때 이어서 진행되며, 더 이상 필요 없으면
+   * purgeTimers()로 없앤다.
    */
   public static void stopTime() {
-    AppManager.printSimpleLog();
+    GameLog.printSimpleLog();
 
-    getInstance().termination = true;
+    TimeManager instance = getInstance();
+    synchronized (instance.pauseLock) {
+      instance.termination = true;
+      instance.pauseLock.notifyAll();
+    }
     try {
-      if (getInstance().workerThread != null) {
-        getInstance().workerThread.join();
-        getInstance().workerThread = null;
-
-        synchronized (TimeManager.class) {
-          uniqueInstance = null;
-        }
+      if (instance.workerThread != null) {
+        instance.workerThread.join();
+        instance.workerThread = null;
       }
     } catch (InterruptedException e) {
       e.printStackTrace();
     }
+
+    synchronized (TimeManager.class) {
+      retired = instance;
+      uniqueInstance = null;
+    }
   }
 
   /**
-   * 스레드 동기화 문제를 해결하기 위해서 countList와 countDoneList에 접근할 때는 락을 건다.
+   * stopTime()으로 종료된 TimeManager가 가지고 있던 타이머와 쿨타임을 모두 없앤다. 게임 상태를 없앨 때 stopTime() 다음에 호출한다.
    */
-  private static void addToCountList(Timer timer) {
-    synchronized (getInstance().countList) {
-      getInstance().countList.add(timer);
+  public static void purgeTimers() {
+    GameLog.printSimpleLog();
+    synchronized (TimeManager.class) {
+      retired = null;
     }
   }
 
   /**
-   * 스레드 동기화 문제를 해결하기 위해서 countList와 countDoneList에 접근할 때는 락을 건다.
+   * 시뮬레이션 시간을 진행시킨다. 게임을 진행시키는 스레드(GameMaster)만 호출한다. 틱 방식이면 그 자리에서 타이머의 초읽기를 진행하고, 끝난
+   * 콜백 타이머의 작업을 작업큐에 넣는다.
+   * 
+   * @param milliSec 진행된 시뮬레이션 시간. 단위 ms
    */
-  private static void addToCountDoneList(Timer timer) {
-    synchronized (getInstance().countDoneList) {
-      getInstance().countDoneList.add(timer);
+  public static void advanceTime(long milliSec) {
+    TimeManager instance = getInstance();
+    instance.consumerThread = Thread.currentThread();
+    instance.simulatedTime += milliSec;
+
+    if (instance.tickDriven && instance.running) {
+      instance.countdownTimers(milliSec);
+    }
+  }
+
+  /*
+   * Timer의 start(), resume(), pause(), restart()가 호출하는 메소드. 카운트다운 상태가 바뀔 때 타이밍 휠에 넣고 뺀다. 스레드 방식일 때는
+   * 스레드 동기화 문제를 해결하기 위해서 타이머 목록에 접근할 때 countWheel에 락을 건다.
+   */
+  void resumeTimer(Timer timer) {
+    if (tickDriven) {
+      resume(timer);
+      return;
+    }
+    synchronized (countWheel) {
+      resume(timer);
+    }
+  }
+
+  void pauseTimer(Timer timer) {
+    if (tickDriven) {
+      pause(timer);
+      return;
+    }
+    synchronized (countWheel) {
+      pause(timer);
+    }
+  }
+
+  void restartTimer(Timer timer) {
+    if (tickDriven) {
+      restart(timer);
+      return;
+    }
+    synchronized (countWheel) {
+      restart(timer);
+    }
+  }
+
+  private void resume(Timer timer) {
+    if (!timer.enabled) {
+      timer.enabled = true;
+      schedule(timer);
+    }
+  }
+
+  private void pause(Timer timer) {
+    unschedule(timer);
+    timer.enabled = false;
+  }
+
+  private void restart(Timer timer) {
+    unschedule(timer);
+    timer.remain = timer.period;
+    timer.enabled = true;
+    schedule(timer);
+  }
+
+  /**
+   * 카운트다운 중인 타이머를 남은 시간 뒤에 만료되도록 휠에 넣는다.
+   */
+  private void schedule(Timer timer) {
+    if (timer.counting && timer.enabled && !timer.scheduled) {
+      countWheel.schedule(timer, timerTime + timer.remain);
+    }
+  }
+
+  /**
+   * 휠에 들어있는 타이머를 빼고, 남은 시간을 계산해둔다.
+   */
+  private void unschedule(Timer timer) {
+    if (timer.scheduled) {
+      timer.remain = timer.deadline - timerTime;
+      countWheel.cancel(timer);
     }
   }
 
   /**
-   * 스레드 동기화 문제를 해결하기 위해서 countList와 countDoneList에 접근할 때는 락을 건다.
+   * 타이머의 초읽기를 진행한다. 만료된 콜백 타이머는 작업을 작업큐에 넣고 다시 휠에 넣으며, 수동 타이머는 카운트 완료 리스트로 보낸다. 스레드
+   * 방식에서는 countWheel의 락을 잡은 상태로 호출해야 한다.
+   *
+   * @param elapsedTime 진행할 시간. 단위 ms
    */
-  private static void removeFromCountDoneList(Timer timer) {
-    synchronized (getInstance().countDoneList) {
-      getInstance().countDoneList.remove(timer);
+  private void countdownTimers(long elapsedTime) {
+    timerTime += elapsedTime;
+    countWheel.advance(timerTime / TimingWheel.RESOLUTION, expiredList);
+
+    int expired = 0;
+    Timer timer = expiredList.poll();
+    while (timer != null) {
+      expired++;
+      timer.remain = timer.deadline - timerTime;
+      TimerRunnable callBack = timer.getCallBackTask();
+
+      // CallBack 타이머일 경우
+      if (callBack != null) {
+
+        // 배속이 빠르면 한 번에 여러 주기가 지나갔을 수 있으므로 지나간 주기만큼 작업을 넣는다.
+        while (timer.isCountDone()) {
+          // 지정된 반복횟수가 끝났을 경우
+          if (timer.isFinish()) {
+            timer.counting = false; // 지정된 횟수만큼 작업을 반복했으므로 더 이상 휠에 넣지 않는다.
+            GameLog.printDetailLog(timer + "'s callback is finished.");
+            break;
+          } else {
+            metrics.getLateness(TimerMetrics.CALLBACK).record(-timer.remain);
+            addTaskQueue(callBack, TimerMetrics.CALLBACK);
+            timer.rewind();
+          }
+        }
+        schedule(timer);
+
+      } else {
+        // 콜백 모드가 아닌 수동 타이머는 카운트 완료 리스트로 보낸다.
+        metrics.getLateness(TimerMetrics.PASSIVE).record(-timer.remain);
+        timer.counting = false;
+        countDoneList.add(timer);
+      }
+      timer = expiredList.poll();
     }
+    metrics.getExpirations().record(expired);
   }
 
   @Override
   public void run() {
-    AppManager.printSimpleLog();
+    GameLog.printSimpleLog();
 
     long currentTime = 0L;
 
     while (!termination) {
-      while (running) {
-        currentTime = System.currentTimeMillis();
-        elapsedTime = currentTime - startTime;
+      // 일시정지 중일 땐 startTime()이나 stopTime()이 깨워줄 때까지 스레드를 재운다.
+      synchronized (pauseLock) {
+        while (!running && !termination) {
+          try {
+            pauseLock.wait();
+          } catch (InterruptedException e) {
+            e.printStackTrace();
+          }
+        }
+      }
+
+      while (running && !termination) {
+        currentTime = simulatedTime;
+        elapsedTime = Math.min(currentTime - startTime, MAX_STEP);
 
         if (elapsedTime >= 10) { // elapsedTime >= 10ms
           /*
            * TimerJob의 초읽기 진행
            */
-          synchronized (countList) {
-            Iterator<Timer> timers = countList.iterator();
-            while (timers.hasNext()) {
-              Timer timer = timers.next();
-              timer.countdown(elapsedTime);
-
-              if (timer.isCountDone()) { // 카운트가 끝났으면
-                TimerRunnable callBack = timer.getCallBackTask();
-
-                // CallBack 타이머일 경우
-                if (callBack != null) {
-
-                  // 지정된 반복횟수가 끝났을 경우
-                  if (timer.isFinish()) {
-                    countList.remove(timer); // 지정된 횟수만큼 작업을 반복했으므로 TimeManager의 count 리스트에서 제거
-                    AppManager.printDetailLog(timer + "'s callback is finished.");
-                  } else {
-                    addTaskQueue(callBack);
-                    timer.restart();
-                  }
-
-                } else {
-                  // 콜백 모드가 아닌 수동 타이머는 카운트 완료 리스트로 보낸다.
-                  countList.remove(timer);
-                  addToCountDoneList(timer);
-                }
-              }
-            }
+          synchronized (countWheel) {
+            countdownTimers(elapsedTime);
           }
 
-          startTime = currentTime;
-        } else { // 경과 시간이 10ms 이하일 경우, 부족한 시간을 sleep으로 때운다.
-          try {
-            Thread.sleep(Math.max(10L - elapsedTime, 0L));
-          } catch (InterruptedException e) {
-            e.printStackTrace();
+          startTime += elapsedTime; // 나눠서 진행하는 경우 남은 시간은 다음 번에 진행한다.
+        } else { // 경과 시간이 10ms 이하일 경우, 시뮬레이션 시간이 진행될 때까지 기다린다. 도중에 일시정지나 종료 요청이 오면 바로 깨어난다.
+          synchronized (pauseLock) {
+            if (running && !termination) {
+              try {
+                pauseLock.wait(Math.max(10L - elapsedTime, 1L));
+              } catch (InterruptedException e) {
+                e.printStackTrace();
+              }
+            }
           }
         }
       }
-      Thread.yield();
     }
-    AppManager.printDetailLog("TimeManager 스레드 종료.");
+    GameLog.printDetailLog("TimeManager 스레드 종료.");
   }
 
   /**
@@ -198,10 +420,17 @@ public class TimeManager implements Runnable {
    * @see Timer
    */
   public static Timer registerPassiveTimer(int timerId, long period) {
-    AppManager.printSimpleLog();
+    GameLog.printSimpleLog();
 
+    TimeManager instance = getInstance();
     Timer timer = new Timer(timerId, period);
-    addToCountDoneList(timer);
+    if (instance.tickDriven) {
+      instance.countDoneList.add(timer);
+    } else {
+      synchronized (instance.countWheel) {
+        instance.countDoneList.add(timer);
+      }
+    }
 
     return timer;
   }
@@ -216,14 +445,64 @@ public class TimeManager implements Runnable {
    * @return 생성된 Timer 객체
    */
   public static Timer registerCallbackTimer(long milliSec, TimerRunnable action, int loop) {
-    AppManager.printSimpleLog();
+    GameLog.printSimpleLog();
 
     Timer timer = new Timer(milliSec, action, loop);
-    addToCountList(timer);
+    timer.counting = true; // 비활성화된 상태이므로 start()나 resume()을 호출해야 휠에 들어간다.
 
     return timer;
   }
 
+  /**
+   * 쿨타임을 등록한다. 쿨타임은 Timer 객체 없이 정수 핸들로 다루는 가벼운 수동 타이머다. 유닛마다 여러 개씩 가져도 되고, 등록된 쿨타임은
+   * 끝난 상태이므로 resetCooldown()을 호출해야 카운트다운을 시작한다. 유닛이 없어질 때는 releaseCooldown()으로 반납한다. 쿨타임은 게임을
+   * 진행시키는 스레드에서만 사용한다.
+   *
+   * @param milliSec 쿨타임의 길이. 단위 ms
+   * @return 쿨타임의 핸들
+   */
+  public static int registerCooldown(long milliSec) {
+    return getInstance().cooldowns.add(milliSec);
+  }
+
+  /**
+   * 쿨타임을 처음부터 다시 시작한다.
+   */
+  public static void resetCooldown(int handle) {
+    TimeManager instance = getInstance();
+    instance.cooldowns.reset(handle, instance.timerTime);
+  }
+
+  /**
+   * 쿨타임을 멈춘다. 다시 resetCooldown()하기 전까지 끝나지 않는다.
+   */
+  public static void cancelCooldown(int handle) {
+    getInstance().cooldowns.cancel(handle);
+  }
+
+  /**
+   * @return 쿨타임이 끝났으면 true
+   */
+  public static boolean isCooldownDone(int handle) {
+    TimeManager instance = getInstance();
+    return instance.cooldowns.isDone(handle, instance.timerTime);
+  }
+
+  /**
+   * @return 쿨타임이 끝나기까지 남은 시간. 끝났으면 0, 멈춘 쿨타임은 Long.MAX_VALUE. 단위 ms
+   */
+  public static long getCooldownRemain(int handle) {
+    TimeManager instance = getInstance();
+    return instance.cooldowns.getRemain(handle, instance.timerTime);
+  }
+
+  /**
+   * 쿨타임을 반납한다. 반납된 핸들은 다음에 등록하는 쿨타임이 재사용하므로 다시 사용하면 안 된다.
+   */
+  public static void releaseCooldown(int handle) {
+    getInstance().cooldowns.remove(handle);
+  }
+
   /**
    * 수동 타이머에 한해서 호출한다. 해당 타이머를 대기완료 리스트에서 대기 리스트로 돌려서 카운트다운을 시작한다.
    *
@@ -231,27 +510,131 @@ public class TimeManager implements Runnable {
    */
   public static void resetPassiveTimer(Timer timer) {
     try {
-      if (BuildConfig.DEBUG && timer.getCallBackTask() != null) {
+      if (GameLog.isDebug() && timer.getCallBackTask() != null) {
         throw new Exception("콜백모드 타이머는 이 메소드를 사용할 수 없음.");
       }
     } catch (Exception e) {
       e.printStackTrace();
     }
 
-    removeFromCountDoneList(timer);
-    addToCountList(timer);
-    timer.restart();
+    TimeManager instance = getInstance();
+    if (instance.tickDriven) {
+      instance.resetTimer(timer);
+    } else {
+      synchronized (instance.countWheel) {
+        instance.resetTimer(timer);
+      }
+    }
   }
 
+  /**
+   * 수동 타이머를 대기완료 리스트에서 빼서 처음부터 카운트다운을 시작한다.
+   */
+  private void resetTimer(Timer timer) {
+    if (countDoneList.contains(timer)) {
+      countDoneList.remove(timer);
+    }
+    timer.counting = true;
+    restart(timer);
+  }
+
+  /**
+   * 대기시간이 끝난 작업을 하나 꺼낸다. 게임을 진행시키는 스레드(GameMaster)에서 호출한다.
+   *
+   * @return 수행할 작업. 없으면 null
+   */
   public static TimerRunnable nextTask() {
-    synchronized (getInstance().taskQueue) {
-      return getInstance().taskQueue.poll();
+    TimeManager instance = getInstance();
+    instance.consumerThread = Thread.currentThread();
+    return instance.pollTask();
+  }
+
+  /**
+   * 작업큐에 들어있는 작업을 한 번에 꺼내서 수행한다. 게임을 진행시키는 스레드(GameMaster)에서 호출한다. 작업큐가 넘쳐서 담아둔 작업을 먼저
+   * 수행하고, 수행하는 도중에 새로 들어온 작업은 다음 번에 수행한다.
+   *
+   * @return 수행한 작업 수
+   */
+  public static int runTasks() {
+    TimeManager instance = getInstance();
+    instance.consumerThread = Thread.currentThread();
+    int count = instance.taskSpill.size() + instance.taskQueue.size();
+    instance.metrics.getQueueDepth().record(count);
+
+    int done = 0;
+    while (done < count) {
+      TimerRunnable task = instance.pollTask();
+      if (task == null) { // 다른 스레드가 아직 넣는 중인 작업
+        break;
+      }
+      task.run();
+      done++;
     }
+    return done;
   }
 
-  private static void addTaskQueue(TimerRunnable task) {
-    synchronized (getInstance().taskQueue) {
-      getInstance().taskQueue.add(task);
+  /**
+   * 넘쳐서 담아둔 작업을 먼저, 그 다음에 작업큐의 작업을 하나 꺼내고 기다린 시간을 기록한다.
+   *
+   * @return 꺼낸 작업. 없으면 null
+   */
+  private TimerRunnable pollTask() {
+    TimerRunnable task = taskSpill.poll();
+    if (task != null) {
+      recordWait(taskSpill.getPolledKind(), taskSpill.getPolledTime());
+      return task;
+    }
+    task = taskQueue.poll();
+    if (task != null) {
+      recordWait(taskQueue.getPolledKind(), taskQueue.getPolledTime());
+    }
+    return task;
+  }
+
+  /**
+   * 게임을 진행시키는 스레드에서 수행할 작업을 넘긴다. UI 스레드나 리소스를 불러오는 스레드 등 어느 스레드에서나 호출할 수 있고, 작업은 다음
+   * 틱의 처음에 수행된다. 작업큐가 가득 찼으면 다른 스레드는 자리가 날 때까지 기다리고, 게임을 진행시키는 스레드는 기다리지 않고 넘친 작업을
+   * 따로 담아둔다.
+   *
+   * @param task 수행할 작업
+   */
+  public static void post(TimerRunnable task) {
+    getInstance().addTaskQueue(task, TimerMetrics.POSTED);
+  }
+
+  /**
+   * 방금 꺼낸 작업이 작업큐에서 기다린 시간을 기록한다.
+   *
+   * @param kind 작업의 종류
+   * @param time 작업을 넣은 시간. 단위 ns
+   */
+  private void recordWait(int kind, long time) {
+    metrics.getWait(kind).record((System.nanoTime() - time) / 1000L);
+  }
+
+  /**
+   * 그리기 스레드처럼 TimeManager의 수명과 상관없이 도는 스레드에서도 부를 수 있도록, 인스턴스가 없으면 새로 만들지 않는다.
+   *
+   * @return 타이머가 얼마나 늦게 처리되는지 재는 지표. stopTime()으로 종료된 뒤라면 null
+   */
+  public static TimerMetrics getMetrics() {
+    TimeManager instance = uniqueInstance;
+    return instance != null ? instance.metrics : null;
+  }
+
+  /**
+   * 작업을 작업큐에 넣는다. 작업큐가 가득 찼을 때, 작업을 꺼내는 스레드가 넣는 작업(틱 방식에서 만료된 콜백 타이머의 작업 포함)은 기다리면
+   * 영영 자리가 나지 않으므로 taskSpill에 담아두고, 다른 스레드는 GameMaster가 작업을 꺼낼 때까지 기다린다. 어느 쪽이든 작업은 그 자리에서
+   * 수행하지 않고 다음 runTasks()에서 수행된다.
+   */
+  private void addTaskQueue(TimerRunnable task, int kind) {
+    long time = System.nanoTime();
+    while (!taskQueue.offer(task, kind, time)) {
+      if (Thread.currentThread() == consumerThread) {
+        taskSpill.add(task, kind, time);
+        return;
+      }
+      Thread.yield(); // GameMaster가 작업을 꺼낼 때까지 기다린다.
     }
   }
 }
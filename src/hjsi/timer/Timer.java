@@ -1,6 +1,6 @@
 package hjsi.timer;
 
-import hjsi.activity.BuildConfig;
+import hjsi.game.GameLog;
 
 /**
  * @author 이상인
@@ -15,17 +15,18 @@ public class Timer {
   /**
    * 타이머의 카운트다운을 진행시키거나 중단시킬 때 사용하는 변수.
    */
-  private boolean enabled = false;
+  boolean enabled = false;
 
   /**
    * 타이머의 대기시간 값으로, 생성시 한 번 입력된 이후로는 값이 바뀌지 않는다. 단위는 밀리초.
    */
-  private final long period;
+  final long period;
 
   /**
-   * 현재 남아있는 대기시간 값으로 리셋하면 period 값과 동일한 값으로 설정된다. 단위는 밀리초.
+   * 현재 남아있는 대기시간 값으로 리셋하면 period 값과 동일한 값으로 설정된다. 단위는 밀리초. 카운트다운 중에는 갱신되지 않고, 타이머가
+   * 만료되거나 멈출 때 deadline으로부터 다시 계산된다.
    */
-  private volatile long remain;
+  volatile long remain;
 
   /**
    * callback 모드인 Timer 스스로 주기적인 작업을 수행하도록 할 때, TimerRunnable로 구현한 작업을 수행한다.
@@ -37,6 +38,20 @@ public class Timer {
    */
   private int loop;
 
+  /*
+   * TimeManager가 관리하는 정보
+   */
+  boolean counting = false; // 카운트다운 대상 여부. enabled와 함께 true면 타이밍 휠에 들어간다.
+  boolean scheduled = false; // 타이밍 휠에 들어있는지 여부
+  long deadline; // 타이밍 휠에 들어있을 때 만료되는 시간. 단위 ms
+  long expireTick; // deadline이 속한 타이밍 휠의 칸
+  /*
+   * TimerList의 연결 정보
+   */
+  TimerList list;
+  Timer prev;
+  Timer next;
+
   /**
    * 지정된 작업을 일정 주기마다 정해진 횟수만큼 반복 수행하는 타이머를 생성한다. 타이머는 바로 시작되지 않는다.
    *
@@ -83,17 +98,6 @@ public class Timer {
     task = null;
   }
 
-  /**
-   * 타이머의 countdown == 초읽기를 한다.
-   *
-   * @param milliSec 현재 남아있는 대기시간(remain)을 감소시킬 값
-   */
-  protected void countdown(long milliSec) {
-    if (enabled == true) {
-      remain -= milliSec;
-    }
-  }
-
   /**
    * @return CallBack 형태의 타이머라면 제대로된 타이머러너블 객체를, 아니라면 null
    */
@@ -107,7 +111,7 @@ public class Timer {
    * @return 이후로도 작업을 계속해야 한다면 true, 이번이 마지막 작업이라면 false
    */
   protected boolean isFinish() {
-    if (BuildConfig.DEBUG & task == null) {
+    if (GameLog.isDebug() & task == null) {
       throw new AssertionError();
     };
 
@@ -125,7 +129,15 @@ public class Timer {
    * Timer의 카운트다운을 초기화하고 처음부터 시작한다.
    */
   public void restart() {
-    remain = period;
+    TimeManager.getInstance().restartTimer(this);
+  }
+
+  /**
+   * 대기시간을 넘긴 만큼은 그대로 두고 다음 주기의 카운트다운을 이어서 시작한다. 주기가 밀리지 않아야 하는 callback 모드
+   * 타이머에서 사용한다. 주기(period)는 0보다 커야 한다.
+   */
+  protected void rewind() {
+    remain += period;
     enabled = true;
   }
 
@@ -133,21 +145,21 @@ public class Timer {
    * Timer의 카운트다운을 시작한다.
    */
   public void start() {
-    enabled = true;
+    TimeManager.getInstance().resumeTimer(this);
   }
 
   /**
    * Timer의 카운트다운을 현재 상태에 이어서 시작한다.
    */
   public void resume() {
-    enabled = true;
+    TimeManager.getInstance().resumeTimer(this);
   }
 
   /**
    * Timer의 카운트다운을 멈춘다.
    */
   public void pause() {
-    enabled = false;
+    TimeManager.getInstance().pauseTimer(this);
   }
 
   /**
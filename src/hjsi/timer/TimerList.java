@@ -0,0 +1,65 @@
+package hjsi.timer;
+
+/**
+ * Timer를 담는 양방향 연결 리스트. 연결 정보를 Timer 안에 직접 갖고 있으므로 추가와 제거에 메모리를 할당하지 않고, 어느 위치의 타이머든
+ * O(1)에 제거할 수 있다. 한 타이머는 동시에 한 리스트에만 들어갈 수 있다.
+ */
+class TimerList {
+  private Timer first;
+  private Timer last;
+
+  /**
+   * 타이머를 리스트의 끝에 추가한다. 다른 리스트에 들어있지 않은 타이머여야 한다.
+   */
+  void add(Timer timer) {
+    timer.prev = last;
+    timer.next = null;
+    if (last == null) {
+      first = timer;
+    } else {
+      last.next = timer;
+    }
+    last = timer;
+    timer.list = this;
+  }
+
+  /**
+   * 타이머를 리스트에서 제거한다. 이 리스트에 들어있는 타이머여야 한다.
+   */
+  void remove(Timer timer) {
+    if (timer.prev == null) {
+      first = timer.next;
+    } else {
+      timer.prev.next = timer.next;
+    }
+    if (timer.next == null) {
+      last = timer.prev;
+    } else {
+      timer.next.prev = timer.prev;
+    }
+    timer.prev = null;
+    timer.next = null;
+    timer.list = null;
+  }
+
+  /**
+   * 리스트의 첫 번째 타이머를 꺼낸다.
+   *
+   * @return 꺼낸 타이머. 리스트가 비었으면 null
+   */
+  Timer poll() {
+    Timer timer = first;
+    if (timer != null) {
+      remove(timer);
+    }
+    return timer;
+  }
+
+  boolean contains(Timer timer) {
+    return timer.list == this;
+  }
+
+  boolean isEmpty() {
+    return first == null;
+  }
+}
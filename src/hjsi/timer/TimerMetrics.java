@@ -0,0 +1,94 @@
+package hjsi.timer;
+
+/**
+ * 타이머가 얼마나 늦게 처리되는지 재는 지표 모음. 타이머 종류별로 만료 시간이 지나고 나서 초읽기가 이를 알아채기까지의 시간과, 작업이
+ * 작업큐에 들어가서 실제로 수행되기까지의 시간을 히스토그램으로 모으고, 작업큐를 비울 때의 작업 수와 한 번의 초읽기에서 만료된 타이머 수도
+ * 모은다. TimeManager.getMetrics()로 가져와서 읽는다.
+ */
+public class TimerMetrics {
+  /*
+   * 타이머 종류
+   */
+  public static final int CALLBACK = 0; // 콜백 타이머
+  public static final int PASSIVE = 1; // 수동 타이머
+  public static final int POSTED = 2; // TimeManager.post()로 넘긴 작업
+  public static final int KIND_COUNT = 3;
+
+  private static final String[] KIND_NAMES = {"callback", "passive", "posted"};
+
+  /**
+   * 만료 시간이 지나고 나서 초읽기가 이를 알아채기까지의 시뮬레이션 시간. 틱 방식에서는 0이어야 한다. 단위 ms
+   */
+  private final Histogram[] lateness = new Histogram[KIND_COUNT];
+  /**
+   * 작업이 작업큐에 들어가서 수행되기까지의 실제 시간. GC나 락 때문에 게임 진행 스레드가 멈추면 커진다. 단위 us
+   */
+  private final Histogram[] wait = new Histogram[KIND_COUNT];
+  /**
+   * 작업큐를 비울 때 들어있던 작업 수
+   */
+  private final Histogram queueDepth = new Histogram("queue depth", "tasks");
+  /**
+   * 한 번의 초읽기(틱 방식에서는 한 틱)에서 만료된 타이머 수
+   */
+  private final Histogram expirations = new Histogram("expirations", "timers/step");
+
+  TimerMetrics() {
+    for (int kind = 0; kind < KIND_COUNT; kind++) {
+      lateness[kind] = new Histogram(KIND_NAMES[kind] + " late", "ms");
+      wait[kind] = new Histogram(KIND_NAMES[kind] + " wait", "us");
+    }
+  }
+
+  public static String getKindName(int kind) {
+    return KIND_NAMES[kind];
+  }
+
+  public Histogram getLateness(int kind) {
+    return lateness[kind];
+  }
+
+  public Histogram getWait(int kind) {
+    return wait[kind];
+  }
+
+  public Histogram getQueueDepth() {
+    return queueDepth;
+  }
+
+  public Histogram getExpirations() {
+    return expirations;
+  }
+
+  /**
+   * 모든 기록을 지운다. 기록하는 스레드가 멈춰 있을 때 호출한다.
+   */
+  public void reset() {
+    for (int kind = 0; kind < KIND_COUNT; kind++) {
+      lateness[kind].reset();
+      wait[kind].reset();
+    }
+    queueDepth.reset();
+    expirations.reset();
+  }
+
+  /**
+   * 기록이 있는 히스토그램의 요약을 문자열로 만든다. 로그 출력용이다.
+   */
+  public String dump() {
+    StringBuilder sb = new StringBuilder("timer metrics");
+    for (int kind = 0; kind < KIND_COUNT; kind++) {
+      append(sb, lateness[kind]);
+      append(sb, wait[kind]);
+    }
+    append(sb, queueDepth);
+    append(sb, expirations);
+    return sb.toString();
+  }
+
+  private void append(StringBuilder sb, Histogram histogram) {
+    if (histogram.getTotal() > 0) {
+      sb.append('\n').append(histogram);
+    }
+  }
+}
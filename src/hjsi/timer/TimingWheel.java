@@ -0,0 +1,125 @@
+package hjsi.timer;
+
+/**
+ * 타이머를 만료 시간별로 나눠 담는 계층형 타이밍 휠. 시간을 RESOLUTION 단위의 칸으로 나누고, 가까운 시간은 0단계 휠의 칸 하나에, 먼
+ * 시간은 윗단계 휠의 큰 칸 하나에 모아둔다. 윗단계의 칸은 그 구간이 시작될 때 아랫단계로 내려 나눠 담는다.
+ *
+ * 시간을 진행시킬 때는 지나간 칸만 보므로, 등록된 타이머가 많아도 만료되는 타이머가 없으면 비용이 늘지 않는다. 타이머를 넣고 빼는 것도 O(1)이다.
+ * 4단계 64칸으로 RESOLUTION(10ms) * 64^4, 약 46시간 뒤까지 담을 수 있고 그보다 먼 타이머는 가장 먼 칸에 두었다가 다시 나눠 담는다.
+ */
+class TimingWheel {
+  /**
+   * 한 칸의 시간. GameMaster의 틱 길이와 같다. 단위 ms
+   */
+  static final long RESOLUTION = 10L;
+
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int LEVELS = 4;
+  /**
+   * 휠에 담을 수 있는 가장 먼 칸까지의 거리. 단위 칸
+   */
+  private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+  private final TimerList[][] slots = new TimerList[LEVELS][SLOTS];
+
+  /**
+   * 다음에 처리할 칸. 이전 칸들은 모두 처리되었다.
+   */
+  private long tick = 0L;
+
+  /**
+   * 휠에 들어있는 타이머 수
+   */
+  private int size = 0;
+
+  TimingWheel() {
+    for (int level = 0; level < LEVELS; level++) {
+      for (int i = 0; i < SLOTS; i++) {
+        slots[level][i] = new TimerList();
+      }
+    }
+  }
+
+  /**
+   * 타이머를 휠에 넣는다. 이미 지난 시간이면 다음에 처리할 칸에 들어간다.
+   *
+   * @param timer 다른 리스트에 들어있지 않은 타이머
+   * @param deadline 타이머가 만료되는 시간. 단위 ms
+   */
+  void schedule(Timer timer, long deadline) {
+    timer.deadline = deadline;
+    timer.expireTick = (deadline + RESOLUTION - 1) / RESOLUTION;
+    timer.scheduled = true;
+    place(timer);
+    size++;
+  }
+
+  /**
+   * 휠에 들어있는 타이머를 뺀다.
+   */
+  void cancel(Timer timer) {
+    timer.list.remove(timer);
+    timer.scheduled = false;
+    size--;
+  }
+
+  /**
+   * 타이머의 만료 칸까지의 거리에 따라 알맞은 단계의 칸에 넣는다.
+   */
+  private void place(Timer timer) {
+    long delta = Math.min(Math.max(timer.expireTick - tick, 0L), MAX_DELTA);
+    long pos = tick + delta;
+
+    int level = 0;
+    while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+      level++;
+    }
+    slots[level][(int) ((pos >> (SLOT_BITS * level)) & SLOT_MASK)].add(timer);
+  }
+
+  /**
+   * nowTick 칸까지 시간을 진행시키고, 그 사이에 만료된 타이머를 expired로 옮긴다.
+   *
+   * @param nowTick 현재 시간이 속한 칸 (현재 시간 / RESOLUTION)
+   * @param expired 만료된 타이머를 담을 리스트
+   */
+  void advance(long nowTick, TimerList expired) {
+    if (size == 0) { // 빈 휠은 칸을 하나씩 돌 필요가 없다.
+      tick = Math.max(tick, nowTick + 1);
+      return;
+    }
+
+    while (tick <= nowTick) {
+      // 윗단계의 구간이 시작되는 칸이면 그 구간의 타이머를 아랫단계로 나눠 담는다. 가장 윗단계부터 내려온다.
+      for (int level = LEVELS - 1; level > 0; level--) {
+        if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+          TimerList slot = slots[level][(int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK)];
+          Timer timer = slot.poll();
+          while (timer != null) {
+            place(timer);
+            timer = slot.poll();
+          }
+        }
+      }
+
+      TimerList slot = slots[0][(int) (tick & SLOT_MASK)];
+      Timer timer = slot.poll();
+      while (timer != null) {
+        timer.scheduled = false;
+        size--;
+        expired.add(timer);
+        timer = slot.poll();
+      }
+      tick++;
+    }
+  }
+
+  /**
+   * @return 휠에 들어있는 타이머 수
+   */
+  int size() {
+    return size;
+  }
+}